@@ -0,0 +1,70 @@
+package benchmarks;
+
+import engine.BitBoard;
+import engine.Direction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Table-driven 4x4 engine used by {@code Grid} for the default dimension.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitBoardBenchmark {
+    private static final int POSITIONS = 256;
+
+    private long[] positions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random seeded = new Random(2048);
+        positions = new long[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            long board = 0;
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                if (seeded.nextBoolean()) {
+                    board = BitBoard.set(board, cell, 1 + seeded.nextInt(8));
+                }
+            }
+            positions[i] = board;
+        }
+    }
+
+    private long nextPosition() {
+        long board = positions[next];
+        next = (next + 1) & (POSITIONS - 1);
+        return board;
+    }
+
+    @Benchmark
+    public long moveUp() {
+        return BitBoard.move(nextPosition(), Direction.UP);
+    }
+
+    @Benchmark
+    public long moveDown() {
+        return BitBoard.move(nextPosition(), Direction.DOWN);
+    }
+
+    @Benchmark
+    public long moveLeft() {
+        return BitBoard.move(nextPosition(), Direction.LEFT);
+    }
+
+    @Benchmark
+    public long moveRight() {
+        return BitBoard.move(nextPosition(), Direction.RIGHT);
+    }
+
+    @Benchmark
+    public boolean movesAvailable() {
+        return BitBoard.canMove(nextPosition());
+    }
+}
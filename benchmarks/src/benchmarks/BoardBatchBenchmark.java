@@ -0,0 +1,88 @@
+package benchmarks;
+
+import engine.Board;
+import engine.BoardBatch;
+import engine.Direction;
+import engine.GameRandom;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random play on {@value #LANES} games at once, stepped in lockstep by a {@link BoardBatch} and one by one as
+ * {@link Board} objects. Every operation plays one move on each game and restarts the finished ones, so scores are
+ * per {@value #LANES} moves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBatchBenchmark {
+    private static final int LANES = 4096;
+    private static final long SEED = 2048;
+
+    @Param({"4", "5"})
+    private int dimension;
+
+    private BoardBatch batch;
+    private Board[] boards;
+    private GameRandom[] randoms;
+    private byte[] directions;
+    private Random policy;
+    private long nextSeed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        batch = new BoardBatch(dimension, LANES);
+        batch.reset(SEED);
+        boards = new Board[LANES];
+        randoms = new GameRandom[LANES];
+        for (int lane = 0; lane < LANES; lane++) {
+            boards[lane] = new Board(dimension);
+            randoms[lane] = new GameRandom(SEED + lane);
+            restart(lane);
+        }
+        directions = new byte[LANES];
+        policy = new Random(SEED);
+        nextSeed = SEED + LANES;
+    }
+
+    private void restart(int lane) {
+        boards[lane].clear();
+        boards[lane].addRandomTile(randoms[lane]);
+        boards[lane].addRandomTile(randoms[lane]);
+    }
+
+    @Benchmark
+    public boolean[] batch() {
+        for (int lane = 0; lane < LANES; lane++) {
+            directions[lane] = (byte) policy.nextInt(4);
+        }
+        batch.step(directions);
+        boolean[] terminal = batch.getTerminal();
+        for (int lane = 0; lane < LANES; lane++) {
+            if (terminal[lane]) {
+                batch.reset(lane, nextSeed++);
+            }
+        }
+        return terminal;
+    }
+
+    @Benchmark
+    public Board[] objects() {
+        for (int lane = 0; lane < LANES; lane++) {
+            Board board = boards[lane];
+            if (board.move(Direction.of(policy.nextInt(4)))) {
+                board.addRandomTile(randoms[lane]);
+            }
+            if (!board.canMove()) {
+                randoms[lane].setSeed(nextSeed++);
+                restart(lane);
+            }
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,150 @@
+package benchmarks;
+
+import engine.Board;
+import engine.Direction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move, game-over check and spawn cost of the engine behind {@code Grid} for every dimension the main menu allows.
+ * Positions come from games played from a fixed seed so runs are comparable, about 4096 cells of them in all so the
+ * branch predictor cannot learn them. Run with {@code -prof gc} for the allocation rate.
+ * Each operation restores a position first; {@link #copyBaseline()} measures that restore on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private static final int POSITION_CELLS = 4096;
+    private static final int SPACING = 4;
+    private static final long SEED = 2048;
+
+    @Param({"3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "16", "17", "18", "19", "20",
+            "21", "22", "23", "24", "25", "26", "27", "28", "29", "30"})
+    private int dimension;
+
+    @Param({"0.1", "0.5", "0.95"})
+    private double fill;
+
+    private Board[] positions;
+    private Board scratch;
+    private Random random;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int count = Integer.highestOneBit(POSITION_CELLS / (dimension * dimension));
+        positions = new Board[Math.max(16, Math.min(256, count))];
+        playPositions(new Random(SEED + dimension));
+        scratch = new Board(dimension);
+        random = new Random(SEED);
+    }
+
+    /**
+     * Plays seeded games and keeps a position every few moves at which exactly the target number of tiles is on the
+     * board. Random moves merge too often to fill a large board, so below the target the game plays the move that
+     * gains least, above it the one that gains most, and at the target a random one. A game that ends or runs
+     * away from the target starts over.
+     */
+    private void playPositions(Random seeded) {
+        Board board = new Board(dimension);
+        Board trial = new Board(dimension);
+        int target = Math.min(board.size() - 1, Math.max(2, (int) Math.round(fill * board.size())));
+        int captured = 0;
+        int sinceCapture = SPACING;
+        newGame(board, seeded);
+        while (captured < positions.length) {
+            int tiles = board.size() - board.emptyCount();
+            if (tiles > target + dimension || !board.canMove()) {
+                newGame(board, seeded);
+                sinceCapture = SPACING;
+                continue;
+            }
+            if (tiles == target && sinceCapture >= SPACING) {
+                positions[captured] = new Board(dimension);
+                positions[captured++].copyFrom(board);
+                sinceCapture = 0;
+            }
+            Direction direction = Direction.of(seeded.nextInt(4));
+            if (tiles != target) {
+                direction = steer(board, trial, direction, tiles < target);
+            }
+            if (board.move(direction)) {
+                board.addRandomTile(seeded);
+                sinceCapture++;
+            }
+        }
+    }
+
+    private static void newGame(Board board, Random seeded) {
+        board.clear();
+        board.addRandomTile(seeded);
+        board.addRandomTile(seeded);
+    }
+
+    /**
+     * @return the legal move that gains least, or most, trying directions from {@code first} on
+     */
+    private static Direction steer(Board board, Board trial, Direction first, boolean least) {
+        Direction best = first;
+        int bestGain = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            Direction direction = Direction.of((first.ordinal() + i) & 3);
+            trial.copyFrom(board);
+            if (trial.move(direction)) {
+                int gain = least ? trial.getLastMoveScore() : -trial.getLastMoveScore();
+                if (gain < bestGain) {
+                    best = direction;
+                    bestGain = gain;
+                }
+            }
+        }
+        return best;
+    }
+
+    private Board nextPosition() {
+        scratch.copyFrom(positions[next]);
+        next = (next + 1) & (positions.length - 1);
+        return scratch;
+    }
+
+    @Benchmark
+    public Board copyBaseline() {
+        return nextPosition();
+    }
+
+    @Benchmark
+    public boolean moveUp() {
+        return nextPosition().move(Direction.UP);
+    }
+
+    @Benchmark
+    public boolean moveDown() {
+        return nextPosition().move(Direction.DOWN);
+    }
+
+    @Benchmark
+    public boolean moveLeft() {
+        return nextPosition().move(Direction.LEFT);
+    }
+
+    @Benchmark
+    public boolean moveRight() {
+        return nextPosition().move(Direction.RIGHT);
+    }
+
+    @Benchmark
+    public boolean movesAvailable() {
+        return nextPosition().canMove();
+    }
+
+    @Benchmark
+    public int addRandomTile() {
+        return nextPosition().addRandomTile(random);
+    }
+}
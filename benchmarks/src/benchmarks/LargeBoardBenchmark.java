@@ -0,0 +1,59 @@
+package benchmarks;
+
+import engine.Board;
+import engine.Direction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One move on a large board through the sequential path and the fork-join path of {@link Board}, for choosing
+ * {@code -Dboard.parallelCells}: the default should be about the smallest board on which {@link #parallel()} wins.
+ * Every operation restores a half-full position first and then moves it in the next direction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LargeBoardBenchmark {
+    private static final long SEED = 2048;
+
+    @Param({"50", "100", "141", "200", "300", "500", "1000"})
+    private int dimension;
+
+    private Board position;
+    private Board scratch;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random seeded = new Random(SEED + dimension);
+        position = new Board(dimension);
+        for (int index = 0; index < position.size(); index++) {
+            if (seeded.nextBoolean()) {
+                position.set(index, 1 + seeded.nextInt(8));
+            }
+        }
+        scratch = new Board(dimension);
+    }
+
+    private boolean move() {
+        scratch.copyFrom(position);
+        next = (next + 1) & 3;
+        return scratch.move(Direction.of(next));
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dboard.parallelCells=2147483647")
+    public boolean sequential() {
+        return move();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dboard.parallelCells=0")
+    public boolean parallel() {
+        return move();
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import engine.LineKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scalar and the vector {@link LineKernel} on a megabyte of half-empty rows, from many 5-cell rows of small
+ * boards to 1000-cell rows of the largest. The vector fork needs {@code vector/src} on the benchmark class path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LineKernelBenchmark {
+    private static final int CELLS = 1 << 20;
+    private static final long SEED = 2048;
+
+    @Param({"5", "16", "100", "1000"})
+    private int length;
+
+    private byte[] rows;
+    private byte[] scratch;
+    private LineKernel kernel;
+    private boolean reverse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random seeded = new Random(SEED + length);
+        rows = new byte[CELLS / length * length];
+        for (int i = 0; i < rows.length; i++) {
+            if (seeded.nextBoolean()) {
+                rows[i] = (byte) (1 + seeded.nextInt(8));
+            }
+        }
+        scratch = new byte[rows.length];
+        kernel = LineKernel.getDefault();
+    }
+
+    private int slide() {
+        System.arraycopy(rows, 0, scratch, 0, rows.length);
+        reverse = !reverse;
+        return kernel.slideRows(scratch, 0, length, rows.length / length, reverse);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dboard.lineKernel=scalar")
+    public int scalar() {
+        return slide();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dboard.lineKernel=vector"})
+    public int vector() {
+        return slide();
+    }
+}
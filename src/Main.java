@@ -1,6 +1,10 @@
 import controller.Controller;
 import javafx.application.Application;
 import javafx.stage.Stage;
+import metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 
 public class Main extends Application {
 
@@ -9,7 +13,13 @@ public class Main extends Application {
     }
 
     @Override
-    public void start(Stage stage) {
+    public void start(Stage stage) throws IOException {
+        Controller.getInstance().setCanvasRenderer("canvas".equals(getParameters().getNamed().get("renderer")));
+        String metricsFile = getParameters().getNamed().get("metrics");
+        if (metricsFile != null) {
+            long interval = Long.parseLong(getParameters().getNamed().getOrDefault("metrics-interval", "5000"));
+            Metrics.getInstance().startExport(Paths.get(metricsFile), interval);
+        }
         Controller.getInstance().main(stage);
     }
 }
\ No newline at end of file
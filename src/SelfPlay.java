@@ -0,0 +1,103 @@
+import ai.DefaultHeuristic;
+import ai.EvaluationCache;
+import ai.ExpectimaxPlayer;
+import ai.GreedyPlayer;
+import ai.MonteCarloPlayer;
+import ai.NTupleNetwork;
+import ai.NTuplePlayer;
+import ai.Player;
+import ai.RandomPlayer;
+import batch.BatchRunner;
+import batch.PlayerFactory;
+import replay.ReplayWriter;
+import scores.ScoreLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class SelfPlay {
+    private static final String USAGE = "usage: SelfPlay [--games=N] [--dimension=N] [--seed=N] [--threads=N]"
+            + " [--policy=random|greedy|expectimax|montecarlo|ntuple|<Player class>] [--depth=N] [--cache=ENTRIES]"
+            + " [--playouts=N] [--weights=FILE]"
+            + " [--format=csv|json] [--report-interval=MILLIS] [--replays=FILE] [--scores=FILE]";
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        int dimension = Integer.parseInt(options.getOrDefault("dimension", "4"));
+        long games = Long.parseLong(options.getOrDefault("games", "1000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+        int threads = Integer.parseInt(
+                options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))
+        );
+        BatchRunner.Format format = BatchRunner.Format.valueOf(
+                options.getOrDefault("format", "json").toUpperCase(Locale.ROOT)
+        );
+        long reportInterval = Long.parseLong(options.getOrDefault("report-interval", "1000"));
+
+        BatchRunner runner = new BatchRunner(dimension, games, seed, threads, makePlayers(options));
+        String replays = options.get("replays");
+        String scores = options.get("scores");
+        try (ReplayWriter replayWriter = replays == null ? null : new ReplayWriter(Paths.get(replays));
+             ScoreLog scoreLog = scores == null ? null : new ScoreLog(Paths.get(scores))) {
+            runner.setReplayWriter(replayWriter);
+            runner.setScoreLog(scoreLog);
+            runner.run(System.out, format, reportInterval);
+        }
+    }
+
+    private static PlayerFactory makePlayers(Map<String, String> options) {
+        String policy = options.getOrDefault("policy", "random");
+        switch (policy) {
+            case "random":
+                return seed -> new RandomPlayer(new Random(~seed));
+            case "greedy":
+                return seed -> new GreedyPlayer();
+            case "expectimax":
+                int depth = Integer.parseInt(options.getOrDefault("depth", "2"));
+                EvaluationCache cache = new EvaluationCache(Integer.parseInt(options.getOrDefault("cache", "4194304")));
+                return seed -> new ExpectimaxPlayer(new DefaultHeuristic(), depth, 0, ForkJoinPool.commonPool(), cache);
+            case "ntuple":
+                NTupleNetwork network = loadNetwork(options.get("weights"));
+                return seed -> new NTuplePlayer(network);
+            case "montecarlo":
+                int playouts = Integer.parseInt(options.getOrDefault("playouts", "100"));
+                return seed -> new MonteCarloPlayer(playouts);
+            default:
+                return seed -> newPlayer(policy);
+        }
+    }
+
+    private static NTupleNetwork loadNetwork(String weights) {
+        if (weights == null) {
+            throw new IllegalArgumentException("--policy=ntuple needs --weights=FILE");
+        }
+        try {
+            return NTupleNetwork.load(Paths.get(weights));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Player newPlayer(String className) {
+        try {
+            return (Player) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("not a Player with a no-argument constructor: " + className, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+import server.GameServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+public class Server {
+    private static final String USAGE = "usage: Server [--port=N] [--host=ADDRESS]";
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        int port = Integer.parseInt(options.getOrDefault("port", "2048"));
+        String host = options.get("host");
+        InetAddress address = host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+
+        try (GameServer server = new GameServer(new InetSocketAddress(address, port))) {
+            System.err.println("serving games on " + server.getAddress());
+            server.run();
+        }
+    }
+}
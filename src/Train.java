@@ -0,0 +1,53 @@
+import ai.NTupleNetwork;
+import ai.NTupleTrainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+public class Train {
+    private static final String USAGE = "usage: Train --weights=FILE [--games=N] [--seed=N] [--threads=N]"
+            + " [--layout=4|6] [--alpha=RATE] [--report-interval=MILLIS] [--checkpoint-interval=MILLIS]";
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        if (!options.containsKey("weights")) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        Path weights = Paths.get(options.get("weights"));
+        long games = Long.parseLong(options.getOrDefault("games", "100000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+        int threads = Integer.parseInt(
+                options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))
+        );
+        float alpha = Float.parseFloat(options.getOrDefault("alpha", "0.1"));
+        long reportInterval = Long.parseLong(options.getOrDefault("report-interval", "10000"));
+        long checkpointInterval = Long.parseLong(options.getOrDefault("checkpoint-interval", "300000"));
+
+        NTupleNetwork network;
+        if (Files.exists(weights)) {
+            network = NTupleNetwork.load(weights);
+        } else if ("4".equals(options.getOrDefault("layout", "6"))) {
+            network = NTupleNetwork.fourTuples();
+        } else {
+            network = NTupleNetwork.sixTuples();
+        }
+
+        NTupleTrainer trainer = new NTupleTrainer(network, alpha, games, seed, threads);
+        trainer.setCheckpoint(weights, checkpointInterval);
+        trainer.run(System.out, reportInterval);
+    }
+}
@@ -0,0 +1,53 @@
+package ai;
+
+import engine.Board;
+
+/**
+ * Rewards empty cells and equal neighbours, penalises rows and columns that are not monotonic.
+ */
+public class DefaultHeuristic implements Heuristic {
+    private static final double EMPTY_WEIGHT = 270;
+    private static final double MERGE_WEIGHT = 70;
+    private static final double MONOTONICITY_WEIGHT = 47;
+
+    @Override
+    public double evaluate(Board board) {
+        int dimension = board.getDimension();
+        int empty = 0;
+        int merges = 0;
+        double monotonicity = 0;
+
+        for (int line = 0; line < dimension; line++) {
+            double rowIncreasing = 0, rowDecreasing = 0, columnIncreasing = 0, columnDecreasing = 0;
+            for (int i = 0; i < dimension; i++) {
+                int value = board.get(line, i);
+                if (value == 0) {
+                    empty++;
+                }
+                if (i + 1 < dimension) {
+                    int right = board.get(line, i + 1);
+                    int below = board.get(i + 1, line);
+                    int above = board.get(i, line);
+                    if (value != 0 && value == right) {
+                        merges++;
+                    }
+                    if (above != 0 && above == below) {
+                        merges++;
+                    }
+                    rowIncreasing += Math.max(0, value - right);
+                    rowDecreasing += Math.max(0, right - value);
+                    columnIncreasing += Math.max(0, above - below);
+                    columnDecreasing += Math.max(0, below - above);
+                }
+            }
+            monotonicity += Math.min(rowIncreasing, rowDecreasing) + Math.min(columnIncreasing, columnDecreasing);
+        }
+
+        return EMPTY_WEIGHT * empty + MERGE_WEIGHT * merges - MONOTONICITY_WEIGHT * monotonicity;
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+}
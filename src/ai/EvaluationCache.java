@@ -0,0 +1,117 @@
+package ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache from 64-bit position keys to {@code double} values in flat primitive arrays, meant to be shared by
+ * every thread of a search. A key lives in one of {@value #PROBES} slots after its home slot; a full window evicts
+ * with a clock sweep, so entries read since the last sweep get a second chance.
+ * <p>
+ * Nothing is locked. Each slot stores the value and the key XOR the value, so a slot torn by two racing writers
+ * does not match either key and reads as a miss instead of the wrong value.
+ */
+public class EvaluationCache {
+    private static final int PROBES = 4;
+
+    private final long[] checks;
+    private final long[] values;
+    private final byte[] referenced;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public EvaluationCache(int capacity) {
+        if (capacity < PROBES || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        this.checks = new long[size];
+        this.values = new long[size];
+        this.referenced = new byte[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Combines a board hash, the board dimension and the search depth into one key; never 0.
+     */
+    public static long key(long boardHash, int dimension, int depth) {
+        long z = boardHash ^ ((long) dimension << 40) ^ ((long) depth * 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z ^= z >>> 33;
+        return z == 0 ? 1 : z;
+    }
+
+    /**
+     * @return the cached value, NaN if {@code key} is not cached
+     */
+    public double get(long key) {
+        int home = (int) key & mask;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (home + i) & mask;
+            long value = values[slot];
+            if ((checks[slot] ^ value) == key) {
+                referenced[slot] = 1;
+                hits.increment();
+                return Double.longBitsToDouble(value);
+            }
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    public void put(long key, double value) {
+        int home = (int) key & mask;
+        int victim = -1;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (home + i) & mask;
+            long check = checks[slot];
+            if (check == 0 || (check ^ values[slot]) == key) {
+                victim = slot;
+                break;
+            }
+        }
+        if (victim < 0) {
+            for (int i = 0; i < PROBES && victim < 0; i++) {
+                int slot = (home + i) & mask;
+                if (referenced[slot] == 0)
+                    victim = slot;
+                else
+                    referenced[slot] = 0;
+            }
+            if (victim < 0)
+                victim = home;
+        }
+
+        long bits = Double.doubleToRawLongBits(value);
+        values[victim] = bits;
+        checks[victim] = key ^ bits;
+        referenced[victim] = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(checks, 0);
+        Arrays.fill(values, 0);
+        Arrays.fill(referenced, (byte) 0);
+        hits.reset();
+        misses.reset();
+    }
+
+    public int capacity() {
+        return checks.length;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
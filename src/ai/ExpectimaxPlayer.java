@@ -0,0 +1,190 @@
+package ai;
+
+import engine.Board;
+import engine.Direction;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Expectimax search over the game rules: max nodes try the four directions, chance nodes spawn a 2 (90%) or a 4
+ * (10%) on every empty cell. The four root branches are searched in parallel on a {@link ForkJoinPool} and share
+ * one {@link EvaluationCache} of heuristic values and subtree values, keyed by board hash and remaining depth, which
+ * may also be shared between players.
+ * With a symmetric heuristic the key is the board's canonical hash, so rotations and reflections of a position are
+ * searched once.
+ * <p>
+ * With a time budget the search deepens iteratively up to {@code maxDepth} and keeps the result of the deepest
+ * iteration that finished in time.
+ */
+public class ExpectimaxPlayer implements Player {
+    private static final double TWO_PROBABILITY = 0.9;
+    private static final double FOUR_PROBABILITY = 0.1;
+    private static final double PROBABILITY_CUTOFF = 0.0001;
+    private static final double GAME_OVER_VALUE = -1_000_000;
+    private static final int DEFAULT_CACHE_CAPACITY = 1 << 18;
+
+    private final Heuristic heuristic;
+    private final int maxDepth;
+    private final long timeBudgetNanos;
+    private final ForkJoinPool pool;
+    private final EvaluationCache cache;
+
+    public ExpectimaxPlayer(Heuristic heuristic, int maxDepth) {
+        this(heuristic, maxDepth, 0, ForkJoinPool.commonPool());
+    }
+
+    public ExpectimaxPlayer(Heuristic heuristic, int maxDepth, long timeBudgetMillis, ForkJoinPool pool) {
+        this(heuristic, maxDepth, timeBudgetMillis, pool, new EvaluationCache(DEFAULT_CACHE_CAPACITY));
+    }
+
+    public ExpectimaxPlayer(Heuristic heuristic, int maxDepth, long timeBudgetMillis, ForkJoinPool pool,
+                            EvaluationCache cache) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("depth must be at least 1: " + maxDepth);
+        }
+        this.heuristic = heuristic;
+        this.maxDepth = maxDepth;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000;
+        this.pool = pool;
+        this.cache = cache;
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        if (timeBudgetNanos <= 0) {
+            return search(board, maxDepth, Long.MAX_VALUE);
+        }
+
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        Direction best = search(board, 1, Long.MAX_VALUE);
+        for (int depth = 2; depth <= maxDepth && System.nanoTime() < deadline; depth++) {
+            Direction direction = search(board, depth, deadline);
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            best = direction;
+        }
+        return best;
+    }
+
+    private Direction search(Board board, int depth, long deadline) {
+        RootTask[] tasks = new RootTask[4];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new RootTask(board, Direction.of(i), depth, deadline);
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(tasks);
+                return null;
+            }
+        });
+
+        Direction best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (RootTask task : tasks) {
+            double value = task.join();
+            if (!Double.isNaN(value) && value > bestValue) {
+                bestValue = value;
+                best = task.direction;
+            }
+        }
+        return best;
+    }
+
+    private long key(Board board, int depth) {
+        long hash = heuristic.isSymmetric() ? board.canonicalHash() : board.zobristHash();
+        return EvaluationCache.key(hash, board.getDimension(), depth);
+    }
+
+    private double evaluate(Board board) {
+        long key = key(board, 0);
+        double value = cache.get(key);
+        if (Double.isNaN(value)) {
+            value = heuristic.evaluate(board);
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    private class RootTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board root;
+        private final Direction direction;
+        private final int depth;
+        private final long deadline;
+        private Board[] scratch;
+
+        RootTask(Board root, Direction direction, int depth, long deadline) {
+            this.root = root;
+            this.direction = direction;
+            this.depth = depth;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Double compute() {
+            scratch = new Board[depth + 1];
+            for (int i = 0; i < scratch.length; i++) {
+                scratch[i] = new Board(root.getDimension());
+            }
+
+            Board next = scratch[0];
+            next.copyFrom(root);
+            if (!next.move(direction)) {
+                return Double.NaN;
+            }
+            return chanceNode(next, depth, 1, 1);
+        }
+
+        private double maxNode(Board board, int depth, double probability, int level) {
+            double best = GAME_OVER_VALUE;
+            Board next = scratch[level];
+            for (int i = 0; i < 4; i++) {
+                next.copyFrom(board);
+                if (next.move(Direction.of(i))) {
+                    best = Math.max(best, chanceNode(next, depth, probability, level + 1));
+                }
+            }
+            return best;
+        }
+
+        private double chanceNode(Board board, int depth, double probability, int level) {
+            if (depth <= 1 || probability < PROBABILITY_CUTOFF || System.nanoTime() >= deadline) {
+                return evaluate(board);
+            }
+
+            long key = key(board, depth);
+            double cached = cache.get(key);
+            if (!Double.isNaN(cached)) {
+                return cached;
+            }
+
+            int empty = board.emptyCount();
+            if (empty == 0) {
+                return evaluate(board);
+            }
+
+            double sum = 0;
+            for (int i = 0; i < board.size(); i++) {
+                if (board.get(i) != 0) {
+                    continue;
+                }
+                board.set(i, 1);
+                sum += TWO_PROBABILITY * maxNode(board, depth - 1, probability * TWO_PROBABILITY / empty, level);
+                board.set(i, 2);
+                sum += FOUR_PROBABILITY * maxNode(board, depth - 1, probability * FOUR_PROBABILITY / empty, level);
+                board.set(i, 0);
+            }
+            double value = sum / empty;
+
+            if (System.nanoTime() < deadline) {
+                cache.put(key, value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ai;
+
+import engine.Board;
+import engine.Direction;
+
+/**
+ * Plays the direction with the largest immediate score, preferring more empty cells on a tie.
+ */
+public class GreedyPlayer implements Player {
+    private Board scratch;
+
+    @Override
+    public Direction chooseMove(Board board) {
+        if (scratch == null || scratch.getDimension() != board.getDimension()) {
+            scratch = new Board(board.getDimension());
+        }
+        Direction best = null;
+        int bestScore = -1;
+        int bestEmpty = -1;
+        for (int i = 0; i < 4; i++) {
+            Direction direction = Direction.of(i);
+            scratch.copyFrom(board);
+            if (!scratch.move(direction)) {
+                continue;
+            }
+            int score = scratch.getLastMoveScore();
+            int empty = scratch.emptyCount();
+            if (score > bestScore || (score == bestScore && empty > bestEmpty)) {
+                best = direction;
+                bestScore = score;
+                bestEmpty = empty;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,15 @@
+package ai;
+
+import engine.Board;
+
+public interface Heuristic {
+    double evaluate(Board board);
+
+    /**
+     * Whether every rotation and reflection of a board evaluates the same, so searches may cache values by
+     * {@link Board#canonicalHash()}.
+     */
+    default boolean isSymmetric() {
+        return false;
+    }
+}
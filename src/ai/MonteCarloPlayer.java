@@ -0,0 +1,171 @@
+package ai;
+
+import engine.Board;
+import engine.Direction;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Picks the direction whose random playouts reach the best mean final score. Playouts for every legal direction
+ * are split into batches on a {@link ForkJoinPool}; each worker draws from its own {@link ThreadLocalRandom}.
+ * {@link #start(Board)} returns a handle whose estimate improves while the playouts are still running.
+ */
+public class MonteCarloPlayer implements Player {
+    private static final int BATCH_SIZE = 32;
+
+    private final int playoutsPerMove;
+    private final int maxPlayoutMoves;
+    private final ForkJoinPool pool;
+
+    public MonteCarloPlayer(int playoutsPerMove) {
+        this(playoutsPerMove, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param maxPlayoutMoves moves after which a playout is cut short, 0 to always play to game over
+     */
+    public MonteCarloPlayer(int playoutsPerMove, int maxPlayoutMoves, ForkJoinPool pool) {
+        if (playoutsPerMove < 1) {
+            throw new IllegalArgumentException("at least one playout is needed: " + playoutsPerMove);
+        }
+        this.playoutsPerMove = playoutsPerMove;
+        this.maxPlayoutMoves = maxPlayoutMoves;
+        this.pool = pool;
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        return start(board).await();
+    }
+
+    public Rollouts start(Board board) {
+        return new Rollouts(board);
+    }
+
+    private static void playout(Board board, Random random, int maxMoves) {
+        int moves = 0;
+        while (maxMoves <= 0 || moves < maxMoves) {
+            if (moveRandomly(board, random) == null) {
+                return;
+            }
+            board.addRandomTile(random);
+            moves++;
+        }
+    }
+
+    /**
+     * Tries the directions in a random order until one changes {@code board}, so each legal direction is equally
+     * likely whichever others are blocked.
+     *
+     * @return the direction played, {@code null} if none changes the board
+     */
+    static Direction moveRandomly(Board board, Random random) {
+        int untried = 0b1111;
+        for (int left = 4; left > 0; left--) {
+            int direction = Integer.numberOfTrailingZeros(untried);
+            for (int skip = random.nextInt(left); skip > 0; skip--) {
+                direction = Integer.numberOfTrailingZeros(untried & -2 << direction);
+            }
+            untried &= ~(1 << direction);
+            if (board.move(Direction.of(direction))) {
+                return Direction.of(direction);
+            }
+        }
+        return null;
+    }
+
+    public class Rollouts {
+        private final LongAdder[] playouts = new LongAdder[4];
+        private final DoubleAdder[] scores = new DoubleAdder[4];
+        private final ForkJoinTask<?>[] batches;
+        private volatile boolean cancelled;
+
+        private Rollouts(Board root) {
+            for (int i = 0; i < 4; i++) {
+                playouts[i] = new LongAdder();
+                scores[i] = new DoubleAdder();
+            }
+
+            int batchesPerMove = (playoutsPerMove + BATCH_SIZE - 1) / BATCH_SIZE;
+            batches = new ForkJoinTask<?>[4 * batchesPerMove];
+            int count = 0;
+            for (int i = 0; i < 4; i++) {
+                Board next = root.copy();
+                if (!next.move(Direction.of(i))) {
+                    continue;
+                }
+                for (int batch = 0; batch < batchesPerMove; batch++) {
+                    int size = Math.min(BATCH_SIZE, playoutsPerMove - batch * BATCH_SIZE);
+                    batches[count++] = pool.submit(batchTask(next, i, size));
+                }
+            }
+        }
+
+        private Runnable batchTask(Board afterMove, int direction, int size) {
+            return () -> {
+                Random random = ThreadLocalRandom.current();
+                Board board = new Board(afterMove.getDimension());
+                for (int i = 0; i < size && !cancelled; i++) {
+                    board.copyFrom(afterMove);
+                    board.addRandomTile(random);
+                    playout(board, random, maxPlayoutMoves);
+                    scores[direction].add(board.getScore());
+                    playouts[direction].increment();
+                }
+            };
+        }
+
+        public long getPlayouts(Direction direction) {
+            return playouts[direction.ordinal()].sum();
+        }
+
+        public double getMeanScore(Direction direction) {
+            long count = getPlayouts(direction);
+            return count == 0 ? Double.NaN : scores[direction.ordinal()].sum() / count;
+        }
+
+        /**
+         * @return the best direction among the playouts finished so far, {@code null} if none has finished
+         */
+        public Direction currentBest() {
+            Direction best = null;
+            double bestMean = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < 4; i++) {
+                Direction direction = Direction.of(i);
+                double mean = getMeanScore(direction);
+                if (!Double.isNaN(mean) && mean > bestMean) {
+                    bestMean = mean;
+                    best = direction;
+                }
+            }
+            return best;
+        }
+
+        public boolean isDone() {
+            for (ForkJoinTask<?> batch : batches) {
+                if (batch != null && !batch.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public Direction await() {
+            for (ForkJoinTask<?> batch : batches) {
+                if (batch != null) {
+                    batch.join();
+                }
+            }
+            return currentBest();
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
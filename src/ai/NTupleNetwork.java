@@ -0,0 +1,283 @@
+package ai;
+
+import engine.BitBoard;
+import engine.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Value function for 4x4 boards: a sum of weights looked up by the exponents under a set of n-tuples of cells, each
+ * tuple applied in all eight rotations and reflections of the board with shared weights. All weights live in one
+ * flat {@code float[]}; lookups and updates read the packed {@link BitBoard} directly and allocate nothing.
+ * <p>
+ * {@link #update(long, float)} writes without synchronization, so several trainer threads may update one network
+ * at once and occasionally lose an update (Hogwild).
+ */
+public class NTupleNetwork implements Heuristic {
+    private static final int MAGIC = 0x3230344E;
+    private static final int VERSION = 1;
+    private static final int SYMMETRIES = 8;
+    private static final int MAX_TUPLES = 256;
+    private static final int CHUNK_FLOATS = 1 << 16;
+
+    private final int[][] tuples;
+    private final int[] starts;
+    private final int[] shifts;
+    private final int[] offsets;
+    private final float[] weights;
+
+    public NTupleNetwork(int[][] tuples) {
+        this.tuples = new int[tuples.length][];
+        int expanded = tuples.length * SYMMETRIES;
+        this.starts = new int[expanded + 1];
+        this.offsets = new int[expanded];
+
+        int cellCount = 0;
+        long weightCount = 0;
+        for (int t = 0; t < tuples.length; t++) {
+            int[] tuple = tuples[t];
+            if (tuple.length < 1 || tuple.length > 7) {
+                throw new IllegalArgumentException("tuples need 1 to 7 cells: " + Arrays.toString(tuple));
+            }
+            for (int cell : tuple) {
+                if (cell < 0 || cell >= BitBoard.CELLS) {
+                    throw new IllegalArgumentException("no such cell: " + cell);
+                }
+            }
+            this.tuples[t] = tuple.clone();
+            for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                int expandedTuple = t * SYMMETRIES + symmetry;
+                offsets[expandedTuple] = (int) weightCount;
+                cellCount += tuple.length;
+                starts[expandedTuple + 1] = cellCount;
+            }
+            weightCount += 1L << (4 * tuple.length);
+            if (weightCount > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("too many weights: " + weightCount);
+            }
+        }
+
+        this.shifts = new int[cellCount];
+        for (int t = 0; t < tuples.length; t++) {
+            for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                int start = starts[t * SYMMETRIES + symmetry];
+                for (int k = 0; k < tuples[t].length; k++) {
+                    shifts[start + k] = 4 * image(symmetry, tuples[t][k]);
+                }
+            }
+        }
+        this.weights = new float[(int) weightCount];
+    }
+
+    /**
+     * Four 6-tuples of two lines and a rectangle each, about 67 million weights (268 MB); the usual choice for
+     * strong play.
+     */
+    public static NTupleNetwork sixTuples() {
+        return new NTupleNetwork(new int[][]{
+                {0, 1, 2, 3, 4, 5},
+                {4, 5, 6, 7, 8, 9},
+                {0, 1, 2, 4, 5, 6},
+                {4, 5, 6, 8, 9, 10}
+        });
+    }
+
+    /**
+     * Every row, column and 2x2 square, about 330 thousand weights; learns fast but plateaus early.
+     */
+    public static NTupleNetwork fourTuples() {
+        return new NTupleNetwork(new int[][]{
+                {0, 1, 2, 3},
+                {4, 5, 6, 7},
+                {0, 1, 4, 5},
+                {1, 2, 5, 6},
+                {5, 6, 9, 10}
+        });
+    }
+
+    private static int image(int symmetry, int cell) {
+        int last = BitBoard.DIMENSION - 1;
+        int row = cell / BitBoard.DIMENSION;
+        int column = cell % BitBoard.DIMENSION;
+        int transposed = (symmetry & 1) != 0 ? row : column;
+        row = (symmetry & 1) != 0 ? column : row;
+        column = transposed;
+        if ((symmetry & 2) != 0)
+            row = last - row;
+        if ((symmetry & 4) != 0)
+            column = last - column;
+        return row * BitBoard.DIMENSION + column;
+    }
+
+    public float value(long board) {
+        float sum = 0;
+        for (int t = 0; t < offsets.length; t++) {
+            sum += weights[offsets[t] + index(board, t)];
+        }
+        return sum;
+    }
+
+    /**
+     * Adds {@code delta} spread over the weights that make up the value of {@code board}, so the value moves by
+     * about {@code delta}.
+     */
+    public void update(long board, float delta) {
+        float step = delta / offsets.length;
+        for (int t = 0; t < offsets.length; t++) {
+            weights[offsets[t] + index(board, t)] += step;
+        }
+    }
+
+    private int index(long board, int expandedTuple) {
+        int index = 0;
+        for (int k = starts[expandedTuple]; k < starts[expandedTuple + 1]; k++) {
+            index = (index << 4) | (int) ((board >>> shifts[k]) & 0xF);
+        }
+        return index;
+    }
+
+    @Override
+    public double evaluate(Board board) {
+        return value(pack(board));
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+
+    static long pack(Board board) {
+        if (board.getDimension() != BitBoard.DIMENSION) {
+            throw new IllegalArgumentException("n-tuple networks play 4x4 boards, not " + board.getDimension());
+        }
+        long packed = 0;
+        for (int index = 0; index < BitBoard.CELLS; index++) {
+            packed = BitBoard.set(packed, index, Math.min(BitBoard.MAX_EXPONENT, board.get(index)));
+        }
+        return packed;
+    }
+
+    public int getWeightCount() {
+        return weights.length;
+    }
+
+    /**
+     * Writes the tuples and weights to a temporary file and moves it over {@code file} when complete, so a
+     * checkpoint taken while training threads keep updating never leaves a torn file behind. The weights go out
+     * through one direct buffer of {@value #CHUNK_FLOATS} floats at a time; the file is never mapped, so nothing
+     * holds it open when it is moved.
+     */
+    public void save(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(headerSize()).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(tuples.length);
+            for (int[] tuple : tuples) {
+                header.putInt(tuple.length);
+                for (int cell : tuple) {
+                    header.putInt(cell);
+                }
+            }
+            header.putInt(weights.length);
+            header.flip();
+            writeFully(channel, header);
+
+            ByteBuffer chunk = ByteBuffer.allocateDirect(4 * CHUNK_FLOATS).order(ByteOrder.LITTLE_ENDIAN);
+            for (int from = 0; from < weights.length; from += CHUNK_FLOATS) {
+                int count = Math.min(CHUNK_FLOATS, weights.length - from);
+                chunk.clear();
+                chunk.asFloatBuffer().put(weights, from, count);
+                chunk.limit(4 * count);
+                writeFully(channel, chunk);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int headerSize() {
+        int size = 4 * 4;
+        for (int[] tuple : tuples) {
+            size += 4 * (1 + tuple.length);
+        }
+        return size;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public static NTupleNetwork load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, 3 * 4, file);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("not an n-tuple network: " + file);
+            }
+            int tupleCount = header.getInt();
+            if (tupleCount < 0 || tupleCount > MAX_TUPLES) {
+                throw new IOException("corrupt n-tuple network: " + file);
+            }
+            int[][] tuples = new int[tupleCount][];
+            for (int t = 0; t < tuples.length; t++) {
+                int length = read(channel, 4, file).getInt();
+                if (length < 0 || length > BitBoard.CELLS) {
+                    throw new IOException("corrupt n-tuple network: " + file);
+                }
+                ByteBuffer cells = read(channel, 4 * length, file);
+                tuples[t] = new int[length];
+                for (int k = 0; k < tuples[t].length; k++) {
+                    tuples[t][k] = cells.getInt();
+                }
+            }
+
+            NTupleNetwork network = new NTupleNetwork(tuples);
+            float[] weights = network.weights;
+            if (read(channel, 4, file).getInt() != weights.length) {
+                throw new IOException("corrupt n-tuple network: " + file);
+            }
+            ByteBuffer chunk = ByteBuffer.allocateDirect(4 * CHUNK_FLOATS).order(ByteOrder.LITTLE_ENDIAN);
+            for (int from = 0; from < weights.length; from += CHUNK_FLOATS) {
+                int count = Math.min(CHUNK_FLOATS, weights.length - from);
+                chunk.clear().limit(4 * count);
+                readFully(channel, chunk, file);
+                chunk.flip();
+                chunk.asFloatBuffer().get(weights, from, count);
+            }
+            return network;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("corrupt n-tuple network: " + file, e);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, int bytes, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buffer, file);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, Path file) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("truncated n-tuple network: " + file);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ai;
+
+import engine.BitBoard;
+import engine.Board;
+import engine.Direction;
+
+/**
+ * Plays the move whose score plus the {@link NTupleNetwork} value of the resulting board is largest. 4x4 only.
+ */
+public class NTuplePlayer implements Player {
+    private final NTupleNetwork network;
+
+    public NTuplePlayer(NTupleNetwork network) {
+        this.network = network;
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        return chooseMove(NTupleNetwork.pack(board));
+    }
+
+    /**
+     * @return the best direction on the packed {@code board}, or {@code null} if no move changes it
+     */
+    public Direction chooseMove(long board) {
+        Direction best = null;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < 4; i++) {
+            Direction direction = Direction.of(i);
+            long after = BitBoard.move(board, direction);
+            if (after == board) {
+                continue;
+            }
+            float value = BitBoard.moveScore(board, direction) + network.value(after);
+            if (value > bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,167 @@
+package ai;
+
+import engine.BitBoard;
+import engine.Direction;
+import engine.GameRandom;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trains an {@link NTupleNetwork} by TD(0) on afterstates: every thread plays its own games greedily on the
+ * network, spawning tiles under the game's rules, and after each move pulls the value of the previous afterstate
+ * toward the reward plus the value of the new one. All threads update the same weights without locking. Game
+ * {@code i} spawns from {@code new GameRandom(seed + i)}; with more than one thread runs are not reproducible
+ * because the threads see each other's updates.
+ */
+public class NTupleTrainer {
+    private final NTupleNetwork network;
+    private final float learningRate;
+    private final long games;
+    private final long seed;
+    private final int threads;
+    private final AtomicLong nextGame = new AtomicLong();
+    private final LongAdder finishedGames = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder totalScore = new LongAdder();
+    private final LongAdder reached2048 = new LongAdder();
+    private final LongAccumulator bestScore = new LongAccumulator(Math::max, 0);
+    private Path checkpoint;
+    private long checkpointIntervalNanos;
+
+    public NTupleTrainer(NTupleNetwork network, float learningRate, long games, long seed, int threads) {
+        this.network = network;
+        this.learningRate = learningRate;
+        this.games = games;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Saves the network to {@code checkpoint} at the first report after every {@code intervalMillis} and when
+     * training ends.
+     */
+    public void setCheckpoint(Path checkpoint, long intervalMillis) {
+        this.checkpoint = checkpoint;
+        this.checkpointIntervalNanos = intervalMillis * 1_000_000;
+    }
+
+    public void run(PrintStream out, long reportIntervalMillis) throws InterruptedException, IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(this::playGames);
+        }
+        executor.shutdown();
+
+        long startNanos = System.nanoTime();
+        long lastGames = 0;
+        long lastScore = 0;
+        long last2048 = 0;
+        long lastCheckpoint = startNanos;
+        boolean done = false;
+        while (!done) {
+            done = executor.awaitTermination(reportIntervalMillis, TimeUnit.MILLISECONDS);
+            long gameCount = finishedGames.sum();
+            long scoreSum = totalScore.sum();
+            long count2048 = reached2048.sum();
+            long window = gameCount - lastGames;
+            double elapsed = (System.nanoTime() - startNanos) / 1e9;
+            out.println(String.format(Locale.ROOT,
+                    "{\"elapsedSeconds\":%.3f,\"games\":%d,\"moves\":%d,\"movesPerSecond\":%.0f,"
+                            + "\"recentMeanScore\":%.2f,\"recent2048Rate\":%.4f,\"bestScore\":%d}",
+                    elapsed, gameCount, moves.sum(), moves.sum() / elapsed,
+                    window == 0 ? 0.0 : (double) (scoreSum - lastScore) / window,
+                    window == 0 ? 0.0 : (double) (count2048 - last2048) / window, bestScore.get()));
+            out.flush();
+            lastGames = gameCount;
+            lastScore = scoreSum;
+            last2048 = count2048;
+            if (checkpoint != null && (done || System.nanoTime() - lastCheckpoint >= checkpointIntervalNanos)) {
+                network.save(checkpoint);
+                lastCheckpoint = System.nanoTime();
+            }
+        }
+    }
+
+    private void playGames() {
+        GameRandom random = new GameRandom(seed);
+        long game;
+        while ((game = nextGame.getAndIncrement()) < games) {
+            random.setSeed(seed + game);
+            playGame(random);
+        }
+    }
+
+    private void playGame(GameRandom random) {
+        long board = spawn(spawn(0, random), random);
+        long previous = 0;
+        boolean started = false;
+        int score = 0;
+        long moveCount = 0;
+
+        while (true) {
+            long bestAfter = 0;
+            int bestReward = 0;
+            float bestValue = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < 4; i++) {
+                Direction direction = Direction.of(i);
+                long after = BitBoard.move(board, direction);
+                if (after == board) {
+                    continue;
+                }
+                int reward = BitBoard.moveScore(board, direction);
+                float value = network.value(after);
+                if (reward + value > bestReward + bestValue) {
+                    bestAfter = after;
+                    bestReward = reward;
+                    bestValue = value;
+                }
+            }
+
+            if (bestValue == Float.NEGATIVE_INFINITY) {
+                if (started) {
+                    learn(previous, 0);
+                }
+                break;
+            }
+            if (started) {
+                learn(previous, bestReward + bestValue);
+            }
+
+            previous = bestAfter;
+            started = true;
+            score += bestReward;
+            moveCount++;
+            board = spawn(bestAfter, random);
+        }
+
+        finishedGames.increment();
+        moves.add(moveCount);
+        totalScore.add(score);
+        bestScore.accumulate(score);
+        if (BitBoard.maxExponent(board) >= 11) {
+            reached2048.increment();
+        }
+    }
+
+    /**
+     * One TD(0) step: moves the value of {@code afterstate} a {@code learningRate} fraction of the way to
+     * {@code target}.
+     */
+    void learn(long afterstate, float target) {
+        network.update(afterstate, learningRate * (target - network.value(afterstate)));
+    }
+
+    private static long spawn(long board, GameRandom random) {
+        int index = BitBoard.emptyCell(board, random.nextInt(BitBoard.emptyCells(board)));
+        return BitBoard.set(board, index, random.nextInt(10) == 0 ? 2 : 1);
+    }
+}
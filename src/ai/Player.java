@@ -0,0 +1,11 @@
+package ai;
+
+import engine.Board;
+import engine.Direction;
+
+public interface Player {
+    /**
+     * @return the direction to play, or {@code null} if no move changes the board
+     */
+    Direction chooseMove(Board board);
+}
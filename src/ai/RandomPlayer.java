@@ -0,0 +1,31 @@
+package ai;
+
+import engine.Board;
+import engine.Direction;
+
+import java.util.Random;
+
+public class RandomPlayer implements Player {
+    private final Random random;
+    private Board scratch;
+
+    public RandomPlayer(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        if (scratch == null || scratch.getDimension() != board.getDimension()) {
+            scratch = new Board(board.getDimension());
+        }
+        int first = random.nextInt(4);
+        for (int i = 0; i < 4; i++) {
+            Direction direction = Direction.of((first + i) & 3);
+            scratch.copyFrom(board);
+            if (scratch.move(direction)) {
+                return direction;
+            }
+        }
+        return null;
+    }
+}
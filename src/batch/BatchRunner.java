@@ -0,0 +1,162 @@
+package batch;
+
+import ai.Player;
+import engine.Board;
+import engine.Direction;
+import replay.Replay;
+import replay.ReplayWriter;
+import scores.ScoreLog;
+import scores.ScoreRecord;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays games headlessly on a fixed pool of threads and streams aggregate statistics while they run.
+ * Game {@code i} spawns tiles from {@code new Random(seed + i)}, so a batch is reproducible whatever the
+ * thread count. If a game fails, the other workers stop taking games and {@link #run} rethrows the failure
+ * instead of reporting partial totals.
+ */
+public class BatchRunner {
+    public enum Format {
+        CSV, JSON
+    }
+
+    private final int dimension;
+    private final long games;
+    private final long seed;
+    private final int threads;
+    private final PlayerFactory players;
+    private final Statistics statistics = new Statistics();
+    private final AtomicLong nextGame = new AtomicLong();
+    private ReplayWriter replayWriter;
+    private ScoreLog scoreLog;
+
+    public BatchRunner(int dimension, long games, long seed, int threads, PlayerFactory players) {
+        this.dimension = dimension;
+        this.games = games;
+        this.seed = seed;
+        this.threads = threads;
+        this.players = players;
+    }
+
+    /**
+     * Records every finished game to {@code replayWriter}.
+     */
+    public void setReplayWriter(ReplayWriter replayWriter) {
+        this.replayWriter = replayWriter;
+    }
+
+    /**
+     * Appends every finished game to {@code scoreLog}.
+     */
+    public void setScoreLog(ScoreLog scoreLog) {
+        this.scoreLog = scoreLog;
+    }
+
+    public Statistics run(PrintStream out, Format format, long reportIntervalMillis) throws InterruptedException {
+        if (format == Format.CSV) {
+            Statistics.writeCsvHeader(out);
+        }
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> report(out, format), reportIntervalMillis, reportIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Callable<Void> worker = () -> {
+            playGames();
+            return null;
+        };
+        List<Future<Void>> workers;
+        try {
+            workers = executor.invokeAll(Collections.nCopies(threads, worker));
+        } finally {
+            executor.shutdownNow();
+            reporter.shutdown();
+            reporter.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+
+        for (Future<Void> result : workers) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new IllegalStateException(cause);
+            }
+        }
+        report(out, format);
+        return statistics;
+    }
+
+    private void report(PrintStream out, Format format) {
+        if (format == Format.CSV) {
+            statistics.writeCsv(out);
+        } else {
+            statistics.writeJson(out);
+        }
+        out.flush();
+    }
+
+    private void playGames() {
+        try {
+            playGames(new Board(dimension));
+        } catch (RuntimeException | Error e) {
+            nextGame.set(games);
+            throw e;
+        }
+    }
+
+    private void playGames(Board board) {
+        long game;
+        while ((game = nextGame.getAndIncrement()) < games) {
+            board.clear();
+            Random random = new Random(seed + game);
+            Player player = players.create(seed + game);
+            Replay replay = replayWriter == null ? null : new Replay(dimension, seed + game);
+            long startNanos = System.nanoTime();
+            board.addRandomTile(random);
+            board.addRandomTile(random);
+
+            long moves = 0;
+            Direction direction;
+            while (board.canMove() && (direction = player.chooseMove(board)) != null && board.move(direction)) {
+                board.addRandomTile(random);
+                moves++;
+                if (replay != null) {
+                    replay.add(direction);
+                }
+            }
+            if (replay != null) {
+                replayWriter.submit(replay);
+            }
+            statistics.record(board.getScore(), board.maxExponent(), moves);
+            if (scoreLog != null) {
+                recordScore(board, moves, System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private void recordScore(Board board, long moves, long nanos) {
+        try {
+            scoreLog.append(new ScoreRecord(System.currentTimeMillis(), dimension, board.getScore(), board.maxExponent(),
+                    (int) Math.min(Integer.MAX_VALUE, moves), (int) Math.min(Integer.MAX_VALUE, nanos / 1_000_000)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
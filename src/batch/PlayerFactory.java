@@ -0,0 +1,10 @@
+package batch;
+
+import ai.Player;
+
+public interface PlayerFactory {
+    /**
+     * @param seed seed of the game the player is created for, for policies that need their own randomness
+     */
+    Player create(long seed);
+}
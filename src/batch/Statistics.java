@@ -0,0 +1,112 @@
+package batch;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregate of finished games that any number of worker threads can record into without locking.
+ * Scores and move counts are bucketed by powers of two, max tiles by exponent, and every report carries the
+ * distributions so far.
+ */
+public class Statistics {
+    private static final int BUCKETS = 64;
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder totalScore = new LongAdder();
+    private final LongAdder totalMoves = new LongAdder();
+    private final LongAccumulator bestScore = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray scoreHistogram = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray maxTiles = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray moveHistogram = new AtomicLongArray(BUCKETS);
+
+    public void record(long score, int maxExponent, long moves) {
+        games.increment();
+        totalScore.add(score);
+        totalMoves.add(moves);
+        bestScore.accumulate(score);
+        scoreHistogram.incrementAndGet(bucket(score));
+        maxTiles.incrementAndGet(maxExponent);
+        moveHistogram.incrementAndGet(bucket(moves));
+    }
+
+    private static int bucket(long value) {
+        return value <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(value);
+    }
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    private double elapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    public void writeJson(PrintStream out) {
+        double elapsed = elapsedSeconds();
+        long count = games.sum();
+        StringBuilder line = new StringBuilder("{");
+        line.append(String.format(Locale.ROOT,
+                "\"elapsedSeconds\":%.3f,\"games\":%d,\"gamesPerSecond\":%.2f,\"meanScore\":%.2f,"
+                        + "\"bestScore\":%d,\"meanMoves\":%.2f",
+                elapsed, count, count / elapsed, mean(totalScore, count), bestScore.get(), mean(totalMoves, count)));
+        appendJson(line, "scoreHistogram", scoreHistogram);
+        appendJson(line, "maxTiles", maxTiles);
+        appendJson(line, "movesHistogram", moveHistogram);
+        out.println(line.append('}'));
+    }
+
+    private static void appendJson(StringBuilder line, String name, AtomicLongArray counts) {
+        line.append(",\"").append(name).append("\":{");
+        boolean first = true;
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count == 0) {
+                continue;
+            }
+            if (!first) {
+                line.append(',');
+            }
+            first = false;
+            line.append('"').append(1L << i).append("\":").append(count);
+        }
+        line.append('}');
+    }
+
+    public static void writeCsvHeader(PrintStream out) {
+        out.println("elapsed_seconds,metric,key,value");
+    }
+
+    /**
+     * Writes one {@code elapsed_seconds,metric,key,value} row per value; histogram keys are bucket lower bounds.
+     */
+    public void writeCsv(PrintStream out) {
+        double elapsed = elapsedSeconds();
+        long count = games.sum();
+        String prefix = String.format(Locale.ROOT, "%.3f,", elapsed);
+        out.println(prefix + "games,," + count);
+        out.println(prefix + String.format(Locale.ROOT, "games_per_second,,%.2f", count / elapsed));
+        out.println(prefix + String.format(Locale.ROOT, "mean_score,,%.2f", mean(totalScore, count)));
+        out.println(prefix + "best_score,," + bestScore.get());
+        out.println(prefix + String.format(Locale.ROOT, "mean_moves,,%.2f", mean(totalMoves, count)));
+        writeCsv(out, prefix, "score_histogram", scoreHistogram);
+        writeCsv(out, prefix, "max_tile", maxTiles);
+        writeCsv(out, prefix, "moves_histogram", moveHistogram);
+    }
+
+    private static void writeCsv(PrintStream out, String prefix, String metric, AtomicLongArray counts) {
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                out.println(prefix + metric + "," + (1L << i) + "," + count);
+            }
+        }
+    }
+
+    private static double mean(LongAdder total, long count) {
+        return count == 0 ? 0 : (double) total.sum() / count;
+    }
+}
@@ -1,12 +1,35 @@
 package controller;
 
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import models.MainMenu;
+import replay.Replay;
+import replay.ReplayWriter;
+import save.SaveStore;
+import scores.ScoreLog;
+import scores.ScoreRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 
 public class Controller {
     private static final Controller CONTROLLER = new Controller();
+    private static final Path DATA_DIRECTORY = Paths.get(System.getProperty("user.home"), ".2048game");
+    private static final Path REPLAY_FILE = DATA_DIRECTORY.resolve("replays.bin");
+    private static final Path SAVE_FILE = DATA_DIRECTORY.resolve("save.bin");
+    private static final Path SCORE_FILE = DATA_DIRECTORY.resolve("scores.bin");
+    private static final double WIDTH = 1300;
+    private static final double HEIGHT = 1000;
     private Stage stage;
+    private Scene scene;
+    private ReplayWriter replayWriter;
+    private SaveStore saveStore;
+    private CompletableFuture<ScoreLog> scoreLog;
+    private boolean canvasRenderer;
 
     private Controller() {
     }
@@ -18,15 +41,96 @@ public class Controller {
     public void main(Stage stage) {
         this.stage = stage;
 
-        MainMenu mainMenu = new MainMenu();
-        mainMenu.start();
+        MainMenu.getInstance().start();
 
         stage.setResizable(false);
         stage.setTitle("2048 Game");
         stage.show();
     }
 
-    public void setScene(Scene scene) {
-        stage.setScene(scene);
+    public boolean isCanvasRenderer() {
+        return canvasRenderer;
+    }
+
+    public void setCanvasRenderer(boolean canvasRenderer) {
+        this.canvasRenderer = canvasRenderer;
+    }
+
+    /**
+     * Shows {@code root} in the one scene of the stage, creating the scene the first time.
+     */
+    public void setRoot(Parent root) {
+        if (scene == null) {
+            scene = new Scene(root, WIDTH, HEIGHT);
+            stage.setScene(scene);
+        } else if (scene.getRoot() != root) {
+            scene.setRoot(root);
+        }
+    }
+
+    public Scene getScene() {
+        return scene;
+    }
+
+    public synchronized SaveStore getSaveStore() {
+        if (saveStore == null) {
+            saveStore = new SaveStore(SAVE_FILE);
+            Runtime.getRuntime().addShutdownHook(new Thread(saveStore::close));
+        }
+        return saveStore;
+    }
+
+    /**
+     * The score log, opened and indexed on a background thread the first time it is asked for.
+     */
+    public synchronized CompletableFuture<ScoreLog> getScoreLog() {
+        if (scoreLog == null) {
+            scoreLog = CompletableFuture.supplyAsync(() -> {
+                try {
+                    ScoreLog log = new ScoreLog(SCORE_FILE);
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        try {
+                            log.close();
+                        } catch (IOException ignored) {
+                        }
+                    }));
+                    return log;
+                } catch (IOException e) {
+                    System.err.println("cannot open score log " + SCORE_FILE + ": " + e.getMessage());
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return scoreLog;
+    }
+
+    public void saveScore(ScoreRecord record) {
+        getScoreLog().thenAccept(log -> {
+            try {
+                log.append(record);
+            } catch (IOException e) {
+                System.err.println("cannot record score: " + e.getMessage());
+            }
+        });
+    }
+
+    public synchronized void saveReplay(Replay replay) {
+        if (replayWriter == null) {
+            try {
+                replayWriter = new ReplayWriter(REPLAY_FILE);
+            } catch (IOException e) {
+                System.err.println("cannot open replay file " + REPLAY_FILE + ": " + e.getMessage());
+                return;
+            }
+            ReplayWriter writer = replayWriter;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    writer.close();
+                } catch (IOException ignored) {
+                }
+            }));
+        }
+        replayWriter.submit(replay);
+        replayWriter.flush();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,270 @@
+package engine;
+
+/**
+ * Headless 4x4 board packed into a single {@code long}: 16 cells of 4-bit exponents, cell {@code row * 4 + column}
+ * in bits {@code [4 * index, 4 * index + 4)}. Exponent 0 is an empty cell, {@code e} is the tile {@code 2^e}.
+ * Every move is a handful of lookups into tables indexed by a 16-bit row; nothing is allocated.
+ * Exponents saturate at 15 (32768): two such tiles do not merge.
+ */
+public final class BitBoard {
+    public static final int DIMENSION = 4;
+    public static final int CELLS = 16;
+    public static final int MAX_EXPONENT = 15;
+
+    private static final long ROW_MASK = 0xFFFFL;
+
+    private static final char[] ROW_LEFT = new char[65536];
+    private static final char[] ROW_RIGHT = new char[65536];
+    private static final char[] MERGED_LEFT = new char[65536];
+    private static final char[] MERGED_RIGHT = new char[65536];
+    private static final int[] SCORE_LEFT = new int[65536];
+    private static final int[] SCORE_RIGHT = new int[65536];
+
+    static {
+        int[] line = new int[DIMENSION];
+        int[] merged = new int[DIMENSION];
+        for (int row = 0; row < 65536; row++) {
+            for (int i = 0; i < DIMENSION; i++) {
+                line[i] = (row >>> (4 * i)) & 0xF;
+            }
+            int score = slideLeft(line, merged);
+            int reversed = reverseRow(row);
+
+            ROW_LEFT[row] = (char) packRow(line);
+            MERGED_LEFT[row] = (char) packRow(merged);
+            SCORE_LEFT[row] = score;
+
+            ROW_RIGHT[reversed] = (char) reverseRow(packRow(line));
+            MERGED_RIGHT[reversed] = (char) reverseRow(packRow(merged));
+            SCORE_RIGHT[reversed] = score;
+        }
+    }
+
+    private BitBoard() {
+    }
+
+    private static int slideLeft(int[] line, int[] merged) {
+        int score = 0;
+        int target = 0;
+        for (int i = 0; i < DIMENSION; i++) {
+            merged[i] = 0;
+        }
+        for (int i = 0; i < DIMENSION; i++) {
+            int value = line[i];
+            if (value == 0) {
+                continue;
+            }
+            line[i] = 0;
+            if (target > 0 && merged[target - 1] == 0 && line[target - 1] == value && value < MAX_EXPONENT) {
+                line[target - 1] = value + 1;
+                merged[target - 1] = 0xF;
+                score += 1 << (value + 1);
+            } else {
+                line[target++] = value;
+            }
+        }
+        return score;
+    }
+
+    private static int packRow(int[] line) {
+        int row = 0;
+        for (int i = 0; i < DIMENSION; i++) {
+            row |= line[i] << (4 * i);
+        }
+        return row;
+    }
+
+    private static int reverseRow(int row) {
+        return ((row >>> 12) & 0xF) | ((row >>> 4) & 0xF0) | ((row << 4) & 0xF00) | ((row << 12) & 0xF000);
+    }
+
+    public static int get(long board, int index) {
+        return (int) ((board >>> (4 * index)) & 0xF);
+    }
+
+    public static int get(long board, int row, int column) {
+        return get(board, row * DIMENSION + column);
+    }
+
+    public static long set(long board, int index, int exponent) {
+        int shift = 4 * index;
+        return (board & ~(0xFL << shift)) | ((long) exponent << shift);
+    }
+
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    /**
+     * Reverses the cells of every row.
+     */
+    public static long mirror(long board) {
+        long swapped = ((board >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((board & 0x0F0F0F0F0F0F0F0FL) << 4);
+        return ((swapped >>> 8) & 0x00FF00FF00FF00FFL) | ((swapped & 0x00FF00FF00FF00FFL) << 8);
+    }
+
+    /**
+     * The smallest of the board's eight rotations and reflections, the same for all of them.
+     */
+    public static long canonical(long board) {
+        long min = board;
+        long rotated = board;
+        for (int i = 0; i < 4; i++) {
+            min = Math.min(min, Math.min(rotated, mirror(rotated)));
+            rotated = mirror(transpose(rotated));
+        }
+        return min;
+    }
+
+    public static long move(long board, Direction direction) {
+        switch (direction) {
+            case UP:
+                return transpose(applyRows(transpose(board), ROW_LEFT));
+            case DOWN:
+                return transpose(applyRows(transpose(board), ROW_RIGHT));
+            case LEFT:
+                return applyRows(board, ROW_LEFT);
+            default:
+                return applyRows(board, ROW_RIGHT);
+        }
+    }
+
+    /**
+     * Nibble mask ({@code 0xF} per cell) of the cells that receive a merged tile when {@code direction} is played.
+     */
+    public static long mergedCells(long board, Direction direction) {
+        switch (direction) {
+            case UP:
+                return transpose(applyRows(transpose(board), MERGED_LEFT));
+            case DOWN:
+                return transpose(applyRows(transpose(board), MERGED_RIGHT));
+            case LEFT:
+                return applyRows(board, MERGED_LEFT);
+            default:
+                return applyRows(board, MERGED_RIGHT);
+        }
+    }
+
+    /**
+     * Records into {@code delta} the slides and merges that {@link #move(long, Direction)} makes on {@code board}.
+     * This walks the cells one by one and is meant for rendering, not for search.
+     */
+    public static void describeMove(long board, Direction direction, MoveDelta delta) {
+        int last = DIMENSION - 1;
+        for (int line = 0; line < DIMENSION; line++) {
+            int start, step;
+            switch (direction) {
+                case UP:
+                    start = line;
+                    step = DIMENSION;
+                    break;
+                case DOWN:
+                    start = last * DIMENSION + line;
+                    step = -DIMENSION;
+                    break;
+                case LEFT:
+                    start = line * DIMENSION;
+                    step = 1;
+                    break;
+                default:
+                    start = line * DIMENSION + last;
+                    step = -1;
+                    break;
+            }
+
+            int target = start;
+            int previous = 0;
+            boolean mergeable = false;
+            for (int i = 0, source = start; i < DIMENSION; i++, source += step) {
+                int value = get(board, source);
+                if (value == 0) {
+                    continue;
+                }
+                if (mergeable && previous == value && value < MAX_EXPONENT) {
+                    delta.addSlide(source, target - step, value);
+                    delta.addMerge(target - step, value + 1);
+                    mergeable = false;
+                } else {
+                    if (source != target) {
+                        delta.addSlide(source, target, value);
+                    }
+                    previous = value;
+                    target += step;
+                    mergeable = true;
+                }
+            }
+        }
+    }
+
+    public static int moveScore(long board, Direction direction) {
+        switch (direction) {
+            case UP:
+                return sumRows(transpose(board), SCORE_LEFT);
+            case DOWN:
+                return sumRows(transpose(board), SCORE_RIGHT);
+            case LEFT:
+                return sumRows(board, SCORE_LEFT);
+            default:
+                return sumRows(board, SCORE_RIGHT);
+        }
+    }
+
+    private static long applyRows(long board, char[] table) {
+        return (long) table[(int) (board & ROW_MASK)]
+                | (long) table[(int) ((board >>> 16) & ROW_MASK)] << 16
+                | (long) table[(int) ((board >>> 32) & ROW_MASK)] << 32
+                | (long) table[(int) ((board >>> 48) & ROW_MASK)] << 48;
+    }
+
+    private static int sumRows(long board, int[] table) {
+        return table[(int) (board & ROW_MASK)]
+                + table[(int) ((board >>> 16) & ROW_MASK)]
+                + table[(int) ((board >>> 32) & ROW_MASK)]
+                + table[(int) ((board >>> 48) & ROW_MASK)];
+    }
+
+    public static boolean canMove(long board) {
+        for (int direction = 0; direction < 4; direction++) {
+            if (move(board, Direction.of(direction)) != board) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static int emptyCells(long board) {
+        return Long.bitCount(emptyMask(board));
+    }
+
+    private static long emptyMask(long board) {
+        long occupied = board | (board >>> 1);
+        occupied |= occupied >>> 2;
+        return ~occupied & 0x1111111111111111L;
+    }
+
+    /**
+     * @return the index of the {@code rank}-th empty cell, counting from 0
+     */
+    public static int emptyCell(long board, int rank) {
+        long empty = emptyMask(board);
+        for (int i = 0; i < rank; i++) {
+            empty &= empty - 1;
+        }
+        return Long.numberOfTrailingZeros(empty) >>> 2;
+    }
+
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (int i = 0; i < CELLS; i++) {
+            max = Math.max(max, get(board, i));
+        }
+        return max;
+    }
+}
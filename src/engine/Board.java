@@ -0,0 +1,685 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Model-only N x N board backed by one flat {@code byte[]} of exponents in row-major order
+ * (cell {@code row * dimension + column}). Exponent 0 is an empty cell, {@code e} is the tile {@code 2^e}.
+ * Moves compact and merge every line in place and allocate nothing.
+ * <p>
+ * Every cell write keeps the number of empty cells and of equal adjacent pairs up to date, so
+ * {@link #canMove()} is a constant-time check instead of a scan. Empty cells are also kept in a bitset with a
+ * Fenwick tree over the per-word counts, so a spawn selects a random empty cell in {@code O(log(cells / 64))}
+ * whatever the fill level.
+ * <p>
+ * Once a Zobrist hash has been asked for, writes also keep eight of them, one per rotation and reflection of the
+ * board, so {@link #canonicalHash()} identifies a board up to symmetry without looking at its cells. Boards that
+ * never hash (and their copies) skip that work.
+ * <p>
+ * Boards of at least {@code -Dboard.parallelCells} cells (default 4096, a 64x64 board) move on the common
+ * {@link ForkJoinPool} when no delta is recorded: tasks slide disjoint bands of rows through the
+ * {@link LineKernel}, writing cells directly and reporting their own score and changed flag, then a second pass
+ * over disjoint ranges of cells rebuilds the counters, the free-cell index and the hashes. Vertical moves are
+ * transposed into a scratch array first and back afterwards, also by bands of rows, so every task writes only
+ * memory it owns. Rebuilding once beats keeping the counters up to date on every write even on one core, so the
+ * threshold does not depend on the core count; {@code benchmarks.LargeBoardBenchmark} compares both paths.
+ */
+public final class Board {
+    private static final int NO_CHANGE = -1;
+    private static final int SYMMETRIES = 8;
+    private static final int ZOBRIST_EXPONENTS = 32;
+    private static final int ZOBRIST_TABLE_DIMENSION = 16;
+    private static final Map<Integer, long[]> ZOBRIST_TABLES = new ConcurrentHashMap<>();
+    private static final int PARALLEL_CELLS = Integer.getInteger("board.parallelCells", 4096);
+    private static final int PARALLELISM = ForkJoinPool.getCommonPoolParallelism();
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int TRANSPOSE_BLOCK = 64;
+    private static final LineKernel LINE_KERNEL = LineKernel.getDefault();
+
+    private final int dimension;
+    private final byte[] cells;
+    private final long[] free;
+    private final int[] freeTree;
+    private final long[] hashes = new long[SYMMETRIES];
+    private final long[] zobristKeys;
+    private byte[] transposed;
+    private int parallelCells = PARALLEL_CELLS;
+    private boolean hashing;
+    private int emptyCount;
+    private int equalPairs;
+    private int score;
+    private int lastMoveScore;
+
+    public Board(int dimension) {
+        if (dimension < 2) {
+            throw new IllegalArgumentException("dimension must be at least 2: " + dimension);
+        }
+        this.dimension = dimension;
+        this.cells = new byte[dimension * dimension];
+        this.free = new long[(cells.length + 63) >>> 6];
+        this.freeTree = new int[free.length + 1];
+        this.zobristKeys = zobristKeys(dimension);
+        resetFreeCells();
+    }
+
+    private void resetFreeCells() {
+        for (int word = 0; word < free.length; word++) {
+            int bits = Math.min(64, cells.length - (word << 6));
+            free[word] = bits == 64 ? -1L : (1L << bits) - 1;
+        }
+        buildFreeTree();
+        emptyCount = cells.length;
+    }
+
+    private void buildFreeTree() {
+        for (int node = 1; node < freeTree.length; node++) {
+            freeTree[node] = Long.bitCount(free[node - 1]);
+        }
+        for (int node = 1; node < freeTree.length; node++) {
+            int parent = node + (node & -node);
+            if (parent < freeTree.length) {
+                freeTree[parent] += freeTree[node];
+            }
+        }
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    /**
+     * Score gained by the last call to {@link #move(Direction)}, 0 if it did not change the board.
+     */
+    public int getLastMoveScore() {
+        return lastMoveScore;
+    }
+
+    public int size() {
+        return cells.length;
+    }
+
+    public int get(int index) {
+        return cells[index];
+    }
+
+    public int get(int row, int column) {
+        return cells[row * dimension + column];
+    }
+
+    public void set(int index, int exponent) {
+        write(index, (byte) exponent);
+    }
+
+    public void set(int row, int column, int exponent) {
+        set(row * dimension + column, exponent);
+    }
+
+    public void clear() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = 0;
+        }
+        resetFreeCells();
+        Arrays.fill(hashes, 0);
+        equalPairs = 0;
+        score = 0;
+        lastMoveScore = 0;
+    }
+
+    public void copyFrom(Board other) {
+        if (other.dimension != dimension) {
+            throw new IllegalArgumentException("dimension mismatch: " + other.dimension + " != " + dimension);
+        }
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.free, 0, free, 0, free.length);
+        System.arraycopy(other.freeTree, 0, freeTree, 0, freeTree.length);
+        System.arraycopy(other.hashes, 0, hashes, 0, SYMMETRIES);
+        hashing = other.hashing;
+        emptyCount = other.emptyCount;
+        equalPairs = other.equalPairs;
+        score = other.score;
+        lastMoveScore = other.lastMoveScore;
+    }
+
+    public Board copy() {
+        Board copy = new Board(dimension);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Plays {@code direction}, adding the gained score to {@link #getScore()}.
+     *
+     * @return whether any tile moved or merged
+     */
+    public boolean move(Direction direction) {
+        return move(direction, null);
+    }
+
+    /**
+     * Plays {@code direction} like {@link #move(Direction)} and records every slide and merge into {@code delta},
+     * which may be {@code null}. The delta is not cleared first.
+     */
+    public boolean move(Direction direction, MoveDelta delta) {
+        if (delta == null && cells.length >= parallelCells) {
+            return moveInParallel(direction);
+        }
+
+        int gained = 0;
+        boolean changed = false;
+        int step = lineStep(direction);
+
+        for (int line = 0; line < dimension; line++) {
+            int lineScore = slide(lineStart(direction, line), step, delta);
+            if (lineScore != NO_CHANGE) {
+                gained += lineScore;
+                changed = true;
+            }
+        }
+
+        lastMoveScore = gained;
+        score += gained;
+        return changed;
+    }
+
+    private int lineStart(Direction direction, int line) {
+        int last = dimension - 1;
+        switch (direction) {
+            case UP:
+                return line;
+            case DOWN:
+                return last * dimension + line;
+            case LEFT:
+                return line * dimension;
+            default:
+                return line * dimension + last;
+        }
+    }
+
+    private int lineStep(Direction direction) {
+        switch (direction) {
+            case UP:
+                return dimension;
+            case DOWN:
+                return -dimension;
+            case LEFT:
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Makes boards of at least {@code cells} cells take the fork-join path, overriding
+     * {@code -Dboard.parallelCells}.
+     */
+    void setParallelCells(int cells) {
+        parallelCells = cells;
+    }
+
+    private boolean moveInParallel(Direction direction) {
+        int grain = Math.max(1, dimension / (PARALLELISM * TASKS_PER_THREAD));
+        boolean vertical = direction == Direction.UP || direction == Direction.DOWN;
+        byte[] rows = cells;
+        if (vertical) {
+            if (transposed == null)
+                transposed = new byte[cells.length];
+            rows = transposed;
+            ForkJoinPool.commonPool().invoke(new TransposeTask(cells, rows, 0, dimension, grain));
+        }
+        boolean reverse = direction == Direction.DOWN || direction == Direction.RIGHT;
+        LineTask lines = new LineTask(rows, reverse, 0, dimension, grain);
+        ForkJoinPool.commonPool().invoke(lines);
+
+        if (lines.changed) {
+            if (vertical)
+                ForkJoinPool.commonPool().invoke(new TransposeTask(rows, cells, 0, dimension, grain));
+            int words = Math.max(1, free.length / (PARALLELISM * TASKS_PER_THREAD));
+            CountTask counts = new CountTask(0, free.length, words);
+            ForkJoinPool.commonPool().invoke(counts);
+            emptyCount = counts.empty;
+            equalPairs = counts.pairs;
+            buildFreeTree();
+            if (hashing)
+                System.arraycopy(counts.hashes, 0, hashes, 0, SYMMETRIES);
+        }
+
+        lastMoveScore = lines.gained;
+        score += lines.gained;
+        return lines.changed;
+    }
+
+    /**
+     * Slides rows {@code [from, to)} of {@code rows} without touching the counters.
+     */
+    private final class LineTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] rows;
+        private final boolean reverse;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private int gained;
+        private boolean changed;
+
+        private LineTask(byte[] rows, boolean reverse, int from, int to, int grain) {
+            this.rows = rows;
+            this.reverse = reverse;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                int rowScore = LINE_KERNEL.slideRows(rows, from * dimension, dimension, to - from, reverse);
+                if (rowScore >= 0) {
+                    gained = rowScore;
+                    changed = true;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            LineTask first = new LineTask(rows, reverse, from, middle, grain);
+            LineTask second = new LineTask(rows, reverse, middle, to, grain);
+            invokeAll(first, second);
+            gained = first.gained + second.gained;
+            changed = first.changed || second.changed;
+        }
+    }
+
+    /**
+     * Writes rows {@code [from, to)} of the transpose of {@code source} into {@code target} in square tiles of
+     * {@link #TRANSPOSE_BLOCK} cells a side, so the source rows of a tile stay in cache.
+     */
+    private final class TransposeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] source;
+        private final byte[] target;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        private TransposeTask(byte[] source, byte[] target, int from, int to, int grain) {
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int rows = from; rows < to; rows += TRANSPOSE_BLOCK) {
+                    int rowEnd = Math.min(to, rows + TRANSPOSE_BLOCK);
+                    for (int columns = 0; columns < dimension; columns += TRANSPOSE_BLOCK) {
+                        int columnEnd = Math.min(dimension, columns + TRANSPOSE_BLOCK);
+                        for (int row = rows; row < rowEnd; row++) {
+                            int out = row * dimension + columns;
+                            int end = row * dimension + columnEnd;
+                            for (int in = columns * dimension + row; out < end; in += dimension) {
+                                target[out++] = source[in];
+                            }
+                        }
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TransposeTask(source, target, from, middle, grain),
+                    new TransposeTask(source, target, middle, to, grain));
+        }
+    }
+
+    /**
+     * Rebuilds the free-cell words {@code [from, to)} and counts the empty cells, the equal pairs whose first cell
+     * lies in them and, when hashing, their share of the hashes.
+     */
+    private final class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final long[] hashes = hashing ? new long[SYMMETRIES] : null;
+        private int empty;
+        private int pairs;
+
+        private CountTask(int from, int to, int grain) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                count();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask first = new CountTask(from, middle, grain);
+            CountTask second = new CountTask(middle, to, grain);
+            invokeAll(first, second);
+            empty = first.empty + second.empty;
+            pairs = first.pairs + second.pairs;
+            if (hashes != null) {
+                for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                    hashes[symmetry] = first.hashes[symmetry] ^ second.hashes[symmetry];
+                }
+            }
+        }
+
+        private void count() {
+            for (int word = from; word < to; word++) {
+                long bits = 0;
+                int end = Math.min(cells.length, (word + 1) << 6);
+                for (int index = word << 6; index < end; index++) {
+                    byte value = cells[index];
+                    if (value == 0) {
+                        bits |= 1L << index;
+                        continue;
+                    }
+                    if (index % dimension != dimension - 1 && cells[index + 1] == value)
+                        pairs++;
+                    if (index + dimension < cells.length && cells[index + dimension] == value)
+                        pairs++;
+                    if (hashes != null) {
+                        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                            hashes[symmetry] ^= zobrist(image(dimension, symmetry, index), value);
+                        }
+                    }
+                }
+                free[word] = bits;
+                empty += Long.bitCount(bits);
+            }
+        }
+    }
+
+    private int slide(int start, int step, MoveDelta delta) {
+        int gained = 0;
+        boolean changed = false;
+        boolean mergeable = false;
+        int target = start;
+        int source = start;
+
+        for (int i = 0; i < dimension; i++, source += step) {
+            byte value = cells[source];
+            if (value == 0) {
+                continue;
+            }
+            if (mergeable && cells[target - step] == value) {
+                write(source, (byte) 0);
+                write(target - step, (byte) (value + 1));
+                if (delta != null) {
+                    delta.addSlide(source, target - step, value);
+                    delta.addMerge(target - step, value + 1);
+                }
+                gained += 1 << (value + 1);
+                mergeable = false;
+                changed = true;
+            } else {
+                if (source != target) {
+                    write(source, (byte) 0);
+                    write(target, value);
+                    changed = true;
+                    if (delta != null) {
+                        delta.addSlide(source, target, value);
+                    }
+                }
+                target += step;
+                mergeable = true;
+            }
+        }
+
+        return changed ? gained : NO_CHANGE;
+    }
+
+    public boolean canMove() {
+        return emptyCount > 0 || equalPairs > 0;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the dimension and cells, for transposition tables.
+     */
+    public long longHash() {
+        long hash = 0xCBF29CE484222325L ^ dimension;
+        for (byte value : cells) {
+            hash = (hash ^ value) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Zobrist hash of the cells, kept up to date by every write.
+     */
+    public long zobristHash() {
+        if (!hashing)
+            startHashing();
+        return hashes[0];
+    }
+
+    /**
+     * Zobrist hash that is the same for a board and all its rotations and reflections.
+     */
+    public long canonicalHash() {
+        if (!hashing)
+            startHashing();
+        long min = hashes[0];
+        for (int i = 1; i < SYMMETRIES; i++) {
+            min = Math.min(min, hashes[i]);
+        }
+        return min;
+    }
+
+    public int emptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * @return how many pairs of neighbouring cells hold the same tile, as kept up to date by every write
+     */
+    int equalPairs() {
+        return equalPairs;
+    }
+
+    /**
+     * @return the Zobrist hash of the board seen through {@code symmetry}, 0 to 7, once hashing has started
+     */
+    long hash(int symmetry) {
+        return hashes[symmetry];
+    }
+
+    private void write(int index, byte value) {
+        byte old = cells[index];
+        if (old == value) {
+            return;
+        }
+        if (old == 0) {
+            emptyCount--;
+            updateFree(index, -1);
+        } else {
+            equalPairs -= equalNeighbours(index, old);
+        }
+        cells[index] = value;
+        if (value == 0) {
+            emptyCount++;
+            updateFree(index, 1);
+        } else {
+            equalPairs += equalNeighbours(index, value);
+        }
+        if (hashing)
+            updateHashes(index, old, value);
+    }
+
+    private void startHashing() {
+        hashing = true;
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index] != 0)
+                updateHashes(index, (byte) 0, cells[index]);
+        }
+    }
+
+    private void updateHashes(int index, byte old, byte value) {
+        if (zobristKeys != null && old < ZOBRIST_EXPONENTS && value < ZOBRIST_EXPONENTS) {
+            int from = (index * ZOBRIST_EXPONENTS + old) * SYMMETRIES;
+            int to = (index * ZOBRIST_EXPONENTS + value) * SYMMETRIES;
+            for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                hashes[symmetry] ^= zobristKeys[from + symmetry] ^ zobristKeys[to + symmetry];
+            }
+            return;
+        }
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            int image = image(dimension, symmetry, index);
+            hashes[symmetry] ^= zobrist(image, old) ^ zobrist(image, value);
+        }
+    }
+
+    /**
+     * Where cell {@code index} lands under one of the eight rotations and reflections of the board.
+     */
+    private static int image(int dimension, int symmetry, int index) {
+        int row = index / dimension;
+        int column = index - row * dimension;
+        int flippedRow = dimension - 1 - row;
+        int flippedColumn = dimension - 1 - column;
+        switch (symmetry) {
+            case 0:
+                return index;
+            case 1:
+                return column * dimension + flippedRow;
+            case 2:
+                return flippedRow * dimension + flippedColumn;
+            case 3:
+                return flippedColumn * dimension + row;
+            case 4:
+                return row * dimension + flippedColumn;
+            case 5:
+                return flippedRow * dimension + column;
+            case 6:
+                return column * dimension + row;
+            default:
+                return flippedColumn * dimension + flippedRow;
+        }
+    }
+
+    /**
+     * Zobrist keys of every cell, exponent and symmetry, laid out so that one write reads two runs of eight.
+     */
+    private static long[] zobristKeys(int dimension) {
+        if (dimension > ZOBRIST_TABLE_DIMENSION) {
+            return null;
+        }
+        return ZOBRIST_TABLES.computeIfAbsent(dimension, key -> {
+            int cells = dimension * dimension;
+            long[] keys = new long[cells * ZOBRIST_EXPONENTS * SYMMETRIES];
+            for (int index = 0; index < cells; index++) {
+                for (int value = 0; value < ZOBRIST_EXPONENTS; value++) {
+                    for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                        int image = image(dimension, symmetry, index);
+                        keys[(index * ZOBRIST_EXPONENTS + value) * SYMMETRIES + symmetry] = zobrist(image, (byte) value);
+                    }
+                }
+            }
+            return keys;
+        });
+    }
+
+    /**
+     * The random key of exponent {@code value} on cell {@code index}, a SplitMix64 mix of both, tabulated for
+     * boards up to {@value #ZOBRIST_TABLE_DIMENSION} wide; empty cells have key 0.
+     */
+    private static long zobrist(int index, byte value) {
+        if (value == 0) {
+            return 0;
+        }
+        long z = (((long) index << 8) | (value & 0xFF)) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void updateFree(int index, int delta) {
+        int word = index >>> 6;
+        free[word] ^= 1L << index;
+        for (int node = word + 1; node < freeTree.length; node += node & -node) {
+            freeTree[node] += delta;
+        }
+    }
+
+    /**
+     * @return the index of the {@code rank}-th empty cell in row-major order, counting from 0
+     */
+    public int emptyCell(int rank) {
+        int word = 0;
+        for (int step = Integer.highestOneBit(free.length); step > 0; step >>>= 1) {
+            int node = word + step;
+            if (node < freeTree.length && freeTree[node] <= rank) {
+                word = node;
+                rank -= freeTree[node];
+            }
+        }
+        long bits = free[word];
+        for (int i = 0; i < rank; i++) {
+            bits &= bits - 1;
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private int equalNeighbours(int index, byte value) {
+        int row = index / dimension;
+        int column = index - row * dimension;
+        int count = 0;
+        if (column > 0 && cells[index - 1] == value) {
+            count++;
+        }
+        if (column < dimension - 1 && cells[index + 1] == value) {
+            count++;
+        }
+        if (row > 0 && cells[index - dimension] == value) {
+            count++;
+        }
+        if (row < dimension - 1 && cells[index + dimension] == value) {
+            count++;
+        }
+        return count;
+    }
+
+    public int maxExponent() {
+        int max = 0;
+        for (byte value : cells) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Places a 2 (90%) or a 4 (10%) on a uniformly chosen empty cell.
+     *
+     * @return the cell index, or -1 if the board is full
+     */
+    public int addRandomTile(Random random) {
+        if (emptyCount == 0) {
+            return -1;
+        }
+        int index = emptyCell(random.nextInt(emptyCount));
+        write(index, (byte) (random.nextInt(10) == 0 ? 2 : 1));
+        return index;
+    }
+}
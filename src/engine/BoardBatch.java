@@ -0,0 +1,280 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Many boards of one dimension stepped in lockstep, kept in flat primitive arrays instead of one object each:
+ * 4x4 lanes are {@link BitBoard} words and move by table lookup, larger ones are {@code dimension * dimension}
+ * exponents one lane after another. Every lane has its own spawn generator; lane {@code i} reset with {@code seed}
+ * spawns exactly like a {@link Board} or {@link BitBoard} game drawing from {@code new GameRandom(seed + i)}.
+ * <p>
+ * {@link #move(byte[])} plays one direction per lane and fills {@link #getGained()} and {@link #getChanged()};
+ * {@link #spawn()} adds a tile to every lane that changed and updates {@link #getTerminal()}. The arrays returned
+ * by the getters are live and overwritten by the next call. 4x4 lanes follow {@link BitBoard}'s rules, so two
+ * 32768 tiles do not merge. Not thread-safe.
+ * <p>
+ * Scores, generators and 4x4 words are one array per field, indexed by lane. Larger lanes keep their cells one
+ * lane after another rather than cell-major: every lane may take a different direction, so lanes are stepped one
+ * at a time, and a lane's rows are then contiguous the way a {@link LineKernel} slides them.
+ */
+public final class BoardBatch {
+    /**
+     * Direction that leaves a lane as it is.
+     */
+    public static final byte SKIP = -1;
+
+    private static final LineKernel LINE_KERNEL = LineKernel.getDefault();
+
+    private final int dimension;
+    private final int size;
+    private final int lanes;
+    private final long[] packed;
+    private final byte[] cells;
+    private final byte[] columns;
+    private final long[] randomStates;
+    private final int[] scores;
+    private final int[] gained;
+    private final boolean[] changed;
+    private final boolean[] terminal;
+
+    public BoardBatch(int dimension, int lanes) {
+        if (dimension < 2 || lanes < 1) {
+            throw new IllegalArgumentException("dimension " + dimension + ", lanes " + lanes);
+        }
+        this.dimension = dimension;
+        this.size = dimension * dimension;
+        this.lanes = lanes;
+        boolean bitBoards = dimension == BitBoard.DIMENSION;
+        this.packed = bitBoards ? new long[lanes] : null;
+        this.cells = bitBoards ? null : new byte[Math.multiplyExact(size, lanes)];
+        this.columns = bitBoards ? null : new byte[size];
+        this.randomStates = new long[lanes];
+        this.scores = new int[lanes];
+        this.gained = new int[lanes];
+        this.changed = new boolean[lanes];
+        this.terminal = new boolean[lanes];
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Starts a new game on every lane, lane {@code i} seeded with {@code seed + i}, with two tiles each.
+     */
+    public void reset(long seed) {
+        for (int lane = 0; lane < lanes; lane++) {
+            reset(lane, seed + lane);
+        }
+    }
+
+    /**
+     * Starts a new game on {@code lane} seeded with {@code seed}, with two tiles, leaving the other lanes as they are.
+     */
+    public void reset(int lane, long seed) {
+        randomStates[lane] = GameRandom.initialState(seed);
+        if (packed != null) {
+            packed[lane] = 0;
+        } else {
+            Arrays.fill(cells, lane * size, (lane + 1) * size, (byte) 0);
+        }
+        scores[lane] = 0;
+        gained[lane] = 0;
+        changed[lane] = false;
+        addRandomTile(lane);
+        addRandomTile(lane);
+        terminal[lane] = !canMove(lane);
+    }
+
+    /**
+     * Plays {@code directions[lane]}, a {@link Direction} ordinal or {@link #SKIP}, on every lane that is not
+     * terminal, adding the gained score to {@link #getScores()}.
+     */
+    public void move(byte[] directions) {
+        if (directions.length < lanes) {
+            throw new IllegalArgumentException(directions.length + " directions for " + lanes + " lanes");
+        }
+        for (int lane = 0; lane < lanes; lane++) {
+            int direction = directions[lane];
+            int score = direction < 0 || terminal[lane] ? -1 : move(lane, Direction.of(direction));
+            changed[lane] = score >= 0;
+            gained[lane] = Math.max(score, 0);
+            scores[lane] += gained[lane];
+        }
+    }
+
+    /**
+     * @return the score gained, -1 if the lane did not change
+     */
+    private int move(int lane, Direction direction) {
+        if (packed == null) {
+            return moveCells(lane, direction);
+        }
+        long board = packed[lane];
+        long after = BitBoard.move(board, direction);
+        if (after == board) {
+            return -1;
+        }
+        packed[lane] = after;
+        return BitBoard.moveScore(board, direction);
+    }
+
+    /**
+     * Slides the lane's rows in place for {@link Direction#LEFT} and {@link Direction#RIGHT}; for the other two
+     * the lane is transposed into {@link #columns} first, so the kernel always sees contiguous lines.
+     */
+    private int moveCells(int lane, Direction direction) {
+        int base = lane * size;
+        boolean reverse = direction == Direction.DOWN || direction == Direction.RIGHT;
+        if (direction == Direction.LEFT || direction == Direction.RIGHT) {
+            return LINE_KERNEL.slideRows(cells, base, dimension, dimension, reverse);
+        }
+        transpose(cells, base, columns, 0);
+        int score = LINE_KERNEL.slideRows(columns, 0, dimension, dimension, reverse);
+        if (score >= 0) {
+            transpose(columns, 0, cells, base);
+        }
+        return score;
+    }
+
+    private void transpose(byte[] source, int from, byte[] target, int to) {
+        for (int row = 0; row < dimension; row++) {
+            for (int column = 0; column < dimension; column++) {
+                target[to + column * dimension + row] = source[from + row * dimension + column];
+            }
+        }
+    }
+
+    /**
+     * Adds a tile to every lane changed by the last {@link #move(byte[])} and marks the lanes left without a move.
+     */
+    public void spawn() {
+        for (int lane = 0; lane < lanes; lane++) {
+            if (changed[lane]) {
+                addRandomTile(lane);
+                terminal[lane] = !canMove(lane);
+            }
+        }
+    }
+
+    /**
+     * {@link #move(byte[])} followed by {@link #spawn()}.
+     */
+    public void step(byte[] directions) {
+        move(directions);
+        spawn();
+    }
+
+    private void addRandomTile(int lane) {
+        if (packed != null) {
+            long board = packed[lane];
+            int empty = BitBoard.emptyCells(board);
+            if (empty == 0) {
+                return;
+            }
+            int index = BitBoard.emptyCell(board, nextInt(lane, empty));
+            packed[lane] = BitBoard.set(board, index, nextInt(lane, 10) == 0 ? 2 : 1);
+            return;
+        }
+        int base = lane * size;
+        int empty = 0;
+        for (int i = base; i < base + size; i++) {
+            if (cells[i] == 0) {
+                empty++;
+            }
+        }
+        if (empty == 0) {
+            return;
+        }
+        int rank = nextInt(lane, empty);
+        int index = base;
+        while (cells[index] != 0 || rank-- > 0) {
+            index++;
+        }
+        cells[index] = (byte) (nextInt(lane, 10) == 0 ? 2 : 1);
+    }
+
+    private int nextInt(int lane, int bound) {
+        return GameRandom.nextInt(randomStates, lane, bound);
+    }
+
+    private boolean canMove(int lane) {
+        if (packed != null) {
+            return BitBoard.canMove(packed[lane]);
+        }
+        int base = lane * size;
+        for (int row = 0; row < dimension; row++) {
+            for (int column = 0; column < dimension; column++) {
+                int index = base + row * dimension + column;
+                byte value = cells[index];
+                if (value == 0
+                        || column + 1 < dimension && cells[index + 1] == value
+                        || row + 1 < dimension && cells[index + dimension] == value) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the exponent at {@code index} of {@code lane}, 0 for an empty cell
+     */
+    public int get(int lane, int index) {
+        return packed != null ? BitBoard.get(packed[lane], index) : cells[lane * size + index];
+    }
+
+    /**
+     * @return the {@link BitBoard} word of {@code lane}; only for 4x4 batches
+     */
+    public long getPacked(int lane) {
+        if (packed == null) {
+            throw new IllegalStateException("lanes of dimension " + dimension + " are not packed");
+        }
+        return packed[lane];
+    }
+
+    public int maxExponent(int lane) {
+        int max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, get(lane, i));
+        }
+        return max;
+    }
+
+    /**
+     * Copies the cells and score of {@code lane} into {@code board}, which must have the batch's dimension.
+     */
+    public void copyTo(int lane, Board board) {
+        for (int i = 0; i < size; i++) {
+            board.set(i, get(lane, i));
+        }
+        board.setScore(scores[lane]);
+    }
+
+    public int[] getScores() {
+        return scores;
+    }
+
+    /**
+     * @return the score each lane gained on the last move, 0 where it did not change
+     */
+    public int[] getGained() {
+        return gained;
+    }
+
+    public boolean[] getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return for each lane whether no direction changes it
+     */
+    public boolean[] getTerminal() {
+        return terminal;
+    }
+}
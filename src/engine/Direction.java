@@ -0,0 +1,11 @@
+package engine;
+
+public enum Direction {
+    UP, DOWN, LEFT, RIGHT;
+
+    private static final Direction[] VALUES = values();
+
+    public static Direction of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
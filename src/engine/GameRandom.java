@@ -0,0 +1,71 @@
+package engine;
+
+import java.util.Random;
+
+/**
+ * {@link Random} with the same sequence for the same seed, whose 48-bit generator state can be read and restored
+ * so a saved game continues with the spawns it would have had. Not thread-safe.
+ */
+public class GameRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    public GameRandom(long seed) {
+        setSeed(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        state = initialState(seed);
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = step(state);
+        return (int) (state >>> (48 - bits));
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+
+    /**
+     * @return the generator state {@code new GameRandom(seed)} starts from
+     */
+    static long initialState(long seed) {
+        return (seed ^ MULTIPLIER) & MASK;
+    }
+
+    static long step(long state) {
+        return (state * MULTIPLIER + ADDEND) & MASK;
+    }
+
+    /**
+     * {@link #nextInt(int)} on a generator whose state is kept in {@code states[index]}, for callers holding many
+     * generators in one array.
+     */
+    static int nextInt(long[] states, int index, int bound) {
+        long state = step(states[index]);
+        int bits = (int) (state >>> 17);
+        int limit = bound - 1;
+        if ((bound & limit) == 0) {
+            states[index] = state;
+            return (int) ((bound * (long) bits) >> 31);
+        }
+        int value;
+        while (bits - (value = bits % bound) + limit < 0) {
+            state = step(state);
+            bits = (int) (state >>> 17);
+        }
+        states[index] = state;
+        return value;
+    }
+}
@@ -0,0 +1,148 @@
+package engine;
+
+/**
+ * Undo/redo history of game states in a ring buffer preallocated for {@code capacity} states: exponents, score,
+ * spawn generator state, move count and the move that led to each state, all in flat primitive arrays.
+ * Recording a state after a move drops the redo states; when the buffer is full the oldest state is overwritten.
+ */
+public class History {
+    private final int cellCount;
+    private final int capacity;
+    private final byte[] cells;
+    private final int[] scores;
+    private final long[] randomStates;
+    private final int[] moveCounts;
+    private final byte[] moves;
+    private int start;
+    private int size;
+    private int cursor = -1;
+
+    public History(int cellCount, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("history needs room for at least two states: " + capacity);
+        }
+        this.cellCount = cellCount;
+        this.capacity = capacity;
+        this.cells = new byte[cellCount * capacity];
+        this.scores = new int[capacity];
+        this.randomStates = new long[capacity];
+        this.moveCounts = new int[capacity];
+        this.moves = new byte[capacity];
+    }
+
+    public void clear() {
+        start = 0;
+        size = 0;
+        cursor = -1;
+    }
+
+    public void push(Board board, int score, long randomState, int moveCount, Direction move) {
+        int offset = nextSlot(score, randomState, moveCount, move) * cellCount;
+        for (int i = 0; i < cellCount; i++) {
+            cells[offset + i] = (byte) board.get(i);
+        }
+    }
+
+    public void push(long packed, int score, long randomState, int moveCount, Direction move) {
+        int offset = nextSlot(score, randomState, moveCount, move) * cellCount;
+        for (int i = 0; i < cellCount; i++) {
+            cells[offset + i] = (byte) BitBoard.get(packed, i);
+        }
+    }
+
+    private int nextSlot(int score, long randomState, int moveCount, Direction move) {
+        size = cursor + 1;
+        if (size == capacity) {
+            start = (start + 1) % capacity;
+            size--;
+        }
+        int slot = (start + size) % capacity;
+        size++;
+        cursor = size - 1;
+
+        scores[slot] = score;
+        randomStates[slot] = randomState;
+        moveCounts[slot] = moveCount;
+        moves[slot] = (byte) (move == null ? -1 : move.ordinal());
+        return slot;
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < size - 1;
+    }
+
+    /**
+     * Steps back to the previous state; read it with the getters.
+     */
+    public boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        cursor--;
+        return true;
+    }
+
+    /**
+     * Steps forward to the next state; read it with the getters.
+     */
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        cursor++;
+        return true;
+    }
+
+    private int slot() {
+        return (start + cursor) % capacity;
+    }
+
+    public int getScore() {
+        return scores[slot()];
+    }
+
+    public long getRandomState() {
+        return randomStates[slot()];
+    }
+
+    public int getMoveCount() {
+        return moveCounts[slot()];
+    }
+
+    /**
+     * @return the move that led to the current state, {@code null} for the first state
+     */
+    public Direction getMove() {
+        byte move = moves[slot()];
+        return move < 0 ? null : Direction.of(move);
+    }
+
+    public int getCell(int index) {
+        return cells[slot() * cellCount + index];
+    }
+
+    /**
+     * Writes the current state's exponents into {@code board}, touching only the cells that differ.
+     */
+    public void restore(Board board) {
+        int offset = slot() * cellCount;
+        for (int i = 0; i < cellCount; i++) {
+            if (board.get(i) != cells[offset + i]) {
+                board.set(i, cells[offset + i]);
+            }
+        }
+    }
+
+    public long restorePacked() {
+        int offset = slot() * cellCount;
+        long packed = 0;
+        for (int i = 0; i < cellCount; i++) {
+            packed = BitBoard.set(packed, i, cells[offset + i]);
+        }
+        return packed;
+    }
+}
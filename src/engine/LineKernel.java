@@ -0,0 +1,42 @@
+package engine;
+
+/**
+ * Slides and merges rows of exponents stored one after another in a flat array, the way a move treats each line:
+ * tiles move toward the first cell of their row (the last with {@code reverse}) and equal neighbours merge once.
+ * <p>
+ * {@link #getDefault()} picks the kernel named by {@code -Dboard.lineKernel}: {@code scalar}; {@code vector}, which
+ * needs the classes under {@code vector/src} and {@code --add-modules jdk.incubator.vector}; {@code verify}, the
+ * vector kernel checked against the scalar one on every call; or {@code auto}, the default, which is the vector
+ * kernel when it loads and the scalar one otherwise.
+ */
+public interface LineKernel {
+    /**
+     * @return the score gained by all rows, -1 if none of them changed
+     */
+    int slideRows(byte[] cells, int offset, int length, int rows, boolean reverse);
+
+    static LineKernel getDefault() {
+        return named(System.getProperty("board.lineKernel", "auto"));
+    }
+
+    static LineKernel named(String name) {
+        switch (name) {
+            case "scalar":
+                return new ScalarLineKernel();
+            case "vector":
+                LineKernel vector = ScalarLineKernel.loadVector();
+                if (vector == null) {
+                    throw new IllegalStateException("vector line kernel unavailable; it needs vector/src on the "
+                            + "class path and --add-modules jdk.incubator.vector");
+                }
+                return vector;
+            case "verify":
+                return new VerifyingLineKernel(named("vector"), new ScalarLineKernel());
+            case "auto":
+                LineKernel loaded = ScalarLineKernel.loadVector();
+                return loaded == null ? new ScalarLineKernel() : loaded;
+            default:
+                throw new IllegalArgumentException("unknown line kernel: " + name);
+        }
+    }
+}
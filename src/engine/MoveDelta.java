@@ -0,0 +1,108 @@
+package engine;
+
+/**
+ * What one move did to a board, in buffers that are allocated once and reused: every tile that slid
+ * (from, to and its exponent), every merge (cell and new exponent), the spawned tile and the score gained.
+ * Slides are recorded in the order the lines are scanned, so applying them in order and then the merges and the
+ * spawn turns the old board into the new one.
+ */
+public class MoveDelta {
+    private final int dimension;
+    private final int[] slideFrom;
+    private final int[] slideTo;
+    private final byte[] slideExponent;
+    private int slideCount;
+    private final int[] mergeCell;
+    private final byte[] mergeExponent;
+    private int mergeCount;
+    private int spawnCell = -1;
+    private int spawnExponent;
+    private int score;
+
+    public MoveDelta(int dimension) {
+        int cells = dimension * dimension;
+        this.dimension = dimension;
+        this.slideFrom = new int[cells];
+        this.slideTo = new int[cells];
+        this.slideExponent = new byte[cells];
+        this.mergeCell = new int[cells / 2 + 1];
+        this.mergeExponent = new byte[cells / 2 + 1];
+    }
+
+    public void clear() {
+        slideCount = 0;
+        mergeCount = 0;
+        spawnCell = -1;
+        score = 0;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    void addSlide(int from, int to, int exponent) {
+        slideFrom[slideCount] = from;
+        slideTo[slideCount] = to;
+        slideExponent[slideCount] = (byte) exponent;
+        slideCount++;
+    }
+
+    void addMerge(int cell, int exponent) {
+        mergeCell[mergeCount] = cell;
+        mergeExponent[mergeCount] = (byte) exponent;
+        mergeCount++;
+        score += 1 << exponent;
+    }
+
+    public void setSpawn(int cell, int exponent) {
+        spawnCell = cell;
+        spawnExponent = exponent;
+    }
+
+    public boolean isChanged() {
+        return slideCount > 0;
+    }
+
+    public int getSlideCount() {
+        return slideCount;
+    }
+
+    public int getSlideFrom(int i) {
+        return slideFrom[i];
+    }
+
+    public int getSlideTo(int i) {
+        return slideTo[i];
+    }
+
+    public int getSlideExponent(int i) {
+        return slideExponent[i];
+    }
+
+    public int getMergeCount() {
+        return mergeCount;
+    }
+
+    public int getMergeCell(int i) {
+        return mergeCell[i];
+    }
+
+    public int getMergeExponent(int i) {
+        return mergeExponent[i];
+    }
+
+    /**
+     * @return the cell of the spawned tile, -1 if nothing spawned
+     */
+    public int getSpawnCell() {
+        return spawnCell;
+    }
+
+    public int getSpawnExponent() {
+        return spawnExponent;
+    }
+
+    public int getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,70 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue of small move codes (a {@link Direction} ordinal or any other code below 128) for one
+ * producer thread and one consumer thread. Offering to a full queue drops the move instead of blocking, so the
+ * producer never waits on the consumer.
+ */
+public class MoveQueue {
+    private final byte[] codes;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public MoveQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        this.codes = new byte[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Called from the producer thread only.
+     *
+     * @return false if the queue was full and {@code code} was dropped
+     */
+    public boolean offer(int code) {
+        if (code < 0 || code > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("code: " + code);
+        }
+        long position = tail.get();
+        if (position - head.get() == codes.length) {
+            return false;
+        }
+        codes[(int) position & mask] = (byte) code;
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Called from the consumer thread only.
+     *
+     * @return the oldest code, -1 if the queue is empty
+     */
+    public int poll() {
+        long position = head.get();
+        if (position == tail.get()) {
+            return -1;
+        }
+        int code = codes[(int) position & mask];
+        head.lazySet(position + 1);
+        return code;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return codes.length;
+    }
+}
@@ -0,0 +1,71 @@
+package engine;
+
+/**
+ * The plain loop over each row, and the reference the other kernels are verified against.
+ */
+final class ScalarLineKernel implements LineKernel {
+    private static final String VECTOR_KERNEL = "engine.VectorLineKernel";
+
+    @Override
+    public int slideRows(byte[] cells, int offset, int length, int rows, boolean reverse) {
+        int gained = 0;
+        boolean changed = false;
+        for (int row = 0; row < rows; row++) {
+            int first = offset + row * length;
+            int rowScore = reverse ? slide(cells, first + length - 1, -1, length) : slide(cells, first, 1, length);
+            if (rowScore >= 0) {
+                gained += rowScore;
+                changed = true;
+            }
+        }
+        return changed ? gained : -1;
+    }
+
+    /**
+     * Slides the {@code length} cells from {@code start}, {@code step} apart, toward {@code start}.
+     *
+     * @return the score gained, -1 if nothing changed
+     */
+    static int slide(byte[] cells, int start, int step, int length) {
+        int gained = 0;
+        boolean changed = false;
+        boolean mergeable = false;
+        int target = start;
+        int source = start;
+
+        for (int i = 0; i < length; i++, source += step) {
+            byte value = cells[source];
+            if (value == 0) {
+                continue;
+            }
+            if (mergeable && cells[target - step] == value) {
+                cells[source] = 0;
+                cells[target - step] = (byte) (value + 1);
+                gained += 1 << (value + 1);
+                mergeable = false;
+                changed = true;
+            } else {
+                if (source != target) {
+                    cells[source] = 0;
+                    cells[target] = value;
+                    changed = true;
+                }
+                target += step;
+                mergeable = true;
+            }
+        }
+
+        return changed ? gained : -1;
+    }
+
+    /**
+     * @return the vector kernel, null if its classes or the incubator module are missing
+     */
+    static LineKernel loadVector() {
+        try {
+            return (LineKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
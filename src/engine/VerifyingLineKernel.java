@@ -0,0 +1,39 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Runs a kernel and a reference kernel on copies of the same rows and fails on the first difference in cells or
+ * score. Much slower than either; for tests and {@code -Dboard.lineKernel=verify} runs.
+ */
+final class VerifyingLineKernel implements LineKernel {
+    private final LineKernel kernel;
+    private final LineKernel reference;
+
+    VerifyingLineKernel(LineKernel kernel, LineKernel reference) {
+        this.kernel = kernel;
+        this.reference = reference;
+    }
+
+    @Override
+    public int slideRows(byte[] cells, int offset, int length, int rows, boolean reverse) {
+        int end = offset + length * rows;
+        byte[] expected = Arrays.copyOfRange(cells, offset, end);
+        int expectedScore = reference.slideRows(expected, 0, length, rows, reverse);
+        int score = kernel.slideRows(cells, offset, length, rows, reverse);
+
+        for (int i = 0; i < expected.length; i++) {
+            if (cells[offset + i] != expected[i]) {
+                int row = i / length;
+                throw new IllegalStateException(String.format(
+                        "line kernel %s differs in row %d cell %d: got %d, expected %d",
+                        kernel.getClass().getSimpleName(), row, i % length, cells[offset + i], expected[i]));
+            }
+        }
+        if (score != expectedScore) {
+            throw new IllegalStateException(String.format("line kernel %s scored %d, expected %d",
+                    kernel.getClass().getSimpleName(), score, expectedScore));
+        }
+        return score;
+    }
+}
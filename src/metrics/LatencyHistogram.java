@@ -0,0 +1,99 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Log-linear histogram of non-negative values (nanoseconds, bytes): 16 buckets per power of two, so every
+ * percentile is within 1/16 of the recorded value. Recording is two uncontended atomic adds and allocates nothing.
+ * Counts only ever grow; readers that want a window diff two {@link #snapshot()}s.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16;
+    private static final int BUCKETS = 61 * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long value) {
+        counts.incrementAndGet(bucket(value));
+        max.accumulate(value);
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long[] snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * @return the bucket counting {@code value}; negative values count as 0
+     */
+    public static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return (exponent - 3) * SUB_BUCKETS + (int) ((value >>> (exponent - 4)) - SUB_BUCKETS);
+    }
+
+    /**
+     * @return the smallest value counted in {@code bucket}
+     */
+    public static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 3;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 4);
+    }
+
+    public static long count(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return the value {@code percentile} percent of the counted values did not exceed, rounded down to its
+     * bucket; 0 if nothing was counted
+     */
+    public static long percentile(long[] counts, double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(count(counts) * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return lowerBound(bucket);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return {@code now - before} per bucket, written into {@code before}
+     */
+    public static long[] difference(long[] now, long[] before) {
+        for (int i = 0; i < now.length; i++) {
+            before[i] = now[i] - before[i];
+        }
+        return before;
+    }
+}
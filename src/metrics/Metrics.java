@@ -0,0 +1,163 @@
+package metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide registry of named histograms and gauges. Histograms are created on first use and kept forever, so
+ * callers look them up once and hold on to them. A {@link Window} reports what was recorded since its previous
+ * report; the overlay and the file export each keep their own.
+ */
+public class Metrics {
+    private static final Metrics METRICS = new Metrics();
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final com.sun.management.ThreadMXBean threads = allocationBean();
+    private ScheduledExecutorService exporter;
+
+    private Metrics() {
+    }
+
+    public static Metrics getInstance() {
+        return METRICS;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) bean;
+                if (allocation.isThreadAllocatedMemorySupported()) {
+                    allocation.setThreadAllocatedMemoryEnabled(true);
+                    return allocation;
+                }
+            }
+        } catch (LinkageError | UnsupportedOperationException ignored) {
+        }
+        return null;
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * @return bytes allocated so far by the calling thread, -1 if the JVM cannot tell
+     */
+    public long allocatedBytes() {
+        return threads == null ? -1 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public Window newWindow() {
+        return new Window();
+    }
+
+    /**
+     * Appends one JSON line per {@code intervalMillis} to {@code file} from a background thread.
+     */
+    public synchronized void startExport(Path file, long intervalMillis) throws IOException {
+        if (exporter != null) {
+            return;
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        Window window = newWindow();
+        exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> {
+            try {
+                out.write(window.json());
+                out.newLine();
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("cannot export metrics to " + file + ": " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reports the values recorded since its previous report.
+     */
+    public class Window {
+        private final Map<String, long[]> previous = new HashMap<>();
+
+        private Window() {
+        }
+
+        private long[] advance(LatencyHistogram histogram) {
+            long[] now = histogram.snapshot();
+            long[] before = previous.get(histogram.getName());
+            previous.put(histogram.getName(), now);
+            return before == null ? now.clone() : LatencyHistogram.difference(now, before);
+        }
+
+        /**
+         * One line per histogram with count, p50 and p99, nanoseconds shown in microseconds, then the gauges.
+         */
+        public String text() {
+            StringBuilder text = new StringBuilder();
+            for (LatencyHistogram histogram : new TreeMap<>(histograms).values()) {
+                long[] counts = advance(histogram);
+                boolean nanos = histogram.getName().endsWith("Nanos");
+                double scale = nanos ? 1e-3 : 1;
+                text.append(String.format(Locale.ROOT, "%-22s %7d  p50 %9.1f  p99 %9.1f%s%n",
+                        histogram.getName(), LatencyHistogram.count(counts),
+                        LatencyHistogram.percentile(counts, 50) * scale,
+                        LatencyHistogram.percentile(counts, 99) * scale, nanos ? " us" : ""));
+            }
+            for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+                text.append(String.format(Locale.ROOT, "%-22s %7d%n", gauge.getKey(), gauge.getValue().getAsLong()));
+            }
+            return text.toString();
+        }
+
+        /**
+         * One JSON object with count and percentiles per histogram ({@code max} is the largest value ever
+         * recorded) and the gauges.
+         */
+        public String json() {
+            StringBuilder line = new StringBuilder("{\"time\":").append(System.currentTimeMillis());
+            for (LatencyHistogram histogram : new TreeMap<>(histograms).values()) {
+                long[] counts = advance(histogram);
+                line.append(",\"").append(histogram.getName()).append("\":{")
+                        .append("\"count\":").append(LatencyHistogram.count(counts))
+                        .append(",\"p50\":").append(LatencyHistogram.percentile(counts, 50))
+                        .append(",\"p90\":").append(LatencyHistogram.percentile(counts, 90))
+                        .append(",\"p99\":").append(LatencyHistogram.percentile(counts, 99))
+                        .append(",\"max\":").append(histogram.getMax())
+                        .append('}');
+            }
+            for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+                line.append(",\"").append(gauge.getKey()).append("\":").append(gauge.getValue().getAsLong());
+            }
+            return line.append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event around one move on the game thread: the slide, the spawn and the game-over check.
+ */
+@Name("game.Move")
+@Label("Move")
+@Category("2048")
+@Description("One move applied by the game thread")
+public class MoveEvent extends Event {
+    @Label("Dimension")
+    public int dimension;
+
+    @Label("Direction")
+    public String direction;
+
+    @Label("Moved")
+    public boolean moved;
+
+    @Label("Spawn Time")
+    @Timespan
+    public long spawnNanos;
+
+    @Label("Game Over Check Time")
+    @Timespan
+    public long gameOverCheckNanos;
+
+    @Label("Allocated Bytes")
+    public long allocatedBytes;
+}
@@ -0,0 +1,19 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event around one animation pulse on the FX thread.
+ */
+@Name("game.Pulse")
+@Label("Animation Pulse")
+@Category("2048")
+@Description("Tweens and repainting views advanced in one FX pulse")
+public class PulseEvent extends Event {
+    @Label("Active Animations")
+    public int activeAnimations;
+}
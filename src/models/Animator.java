@@ -0,0 +1,225 @@
+package models;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.Region;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import metrics.PulseEvent;
+
+import java.util.Arrays;
+
+/**
+ * The one {@link AnimationTimer} behind every animation in the game. Tweens live in a pool of reusable objects and
+ * all of them advance in a single pass per pulse; starting a tween on a node replaces the one already running on
+ * the same node and property. Views that repaint themselves register a {@link Ticker} instead. The timer only
+ * runs while there is something to do. Each pulse records its own duration and the time since the previous pulse
+ * in {@link Metrics}.
+ */
+class Animator {
+    private static final Animator ANIMATOR = new Animator();
+    private static final int SCALE = 0;
+    private static final int BACKGROUND = 1;
+    private static final LatencyHistogram PULSE_NANOS = Metrics.getInstance().histogram("fxPulseNanos");
+    private static final LatencyHistogram FRAME_NANOS = Metrics.getInstance().histogram("fxFrameNanos");
+
+    interface Ticker {
+        /**
+         * @return whether the ticker wants another pulse
+         */
+        boolean tick(long now);
+    }
+
+    private static class Tween {
+        private Node node;
+        private int property;
+        private long start;
+        private long duration;
+        private double from;
+        private double to;
+        private boolean pulse;
+        private Background[] frames;
+        private int frame;
+    }
+
+    private Tween[] active = new Tween[64];
+    private int activeCount;
+    private Tween[] free = new Tween[64];
+    private int freeCount;
+    private Ticker[] tickers = new Ticker[4];
+    private int tickerCount;
+    private boolean running;
+    private long lastPulse;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            pulse(now);
+        }
+    };
+
+    private Animator() {
+        for (int i = 0; i < free.length; i++) {
+            free[freeCount++] = new Tween();
+        }
+        Metrics.getInstance().gauge("activeAnimations", this::getActiveCount);
+    }
+
+    static Animator getInstance() {
+        return ANIMATOR;
+    }
+
+    int getActiveCount() {
+        return activeCount + tickerCount;
+    }
+
+    /**
+     * Scales {@code node} from {@code from} to {@code to}; a pulse goes to {@code to} and back in the same time.
+     */
+    void scale(Node node, double from, double to, long durationNanos, boolean pulse) {
+        Tween tween = obtain(node, SCALE);
+        tween.duration = durationNanos;
+        tween.from = from;
+        tween.to = to;
+        tween.pulse = pulse;
+        node.setScaleX(from);
+        node.setScaleY(from);
+        start();
+    }
+
+    /**
+     * Shows one of the precomputed {@code frames} per pulse, ending on the last.
+     */
+    void backgrounds(Region region, Background[] frames) {
+        Tween tween = obtain(region, BACKGROUND);
+        tween.frames = frames;
+        tween.frame = 0;
+        start();
+    }
+
+    /**
+     * Stops the tweens running on {@code node} where they are.
+     */
+    void cancel(Node node) {
+        for (int i = 0; i < activeCount; ) {
+            if (active[i].node == node) {
+                release(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    void schedule(Ticker ticker) {
+        for (int i = 0; i < tickerCount; i++) {
+            if (tickers[i] == ticker) {
+                return;
+            }
+        }
+        if (tickerCount == tickers.length) {
+            tickers = Arrays.copyOf(tickers, tickers.length * 2);
+        }
+        tickers[tickerCount++] = ticker;
+        start();
+    }
+
+    private Tween obtain(Node node, int property) {
+        for (int i = 0; i < activeCount; i++) {
+            Tween tween = active[i];
+            if (tween.node == node && tween.property == property) {
+                tween.start = -1;
+                return tween;
+            }
+        }
+
+        Tween tween = freeCount > 0 ? free[--freeCount] : new Tween();
+        if (activeCount == active.length) {
+            active = Arrays.copyOf(active, active.length * 2);
+        }
+        active[activeCount++] = tween;
+        tween.node = node;
+        tween.property = property;
+        tween.start = -1;
+        return tween;
+    }
+
+    private void start() {
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    private void pulse(long now) {
+        PulseEvent event = new PulseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        if (lastPulse != 0) {
+            FRAME_NANOS.record(now - lastPulse);
+        }
+        lastPulse = now;
+        int animations = getActiveCount();
+
+        for (int i = 0; i < activeCount; ) {
+            if (advance(active[i], now)) {
+                i++;
+            } else {
+                release(i);
+            }
+        }
+
+        for (int i = 0; i < tickerCount; ) {
+            if (tickers[i].tick(now)) {
+                i++;
+            } else {
+                tickers[i] = tickers[--tickerCount];
+                tickers[tickerCount] = null;
+            }
+        }
+
+        if (activeCount == 0 && tickerCount == 0) {
+            running = false;
+            lastPulse = 0;
+            timer.stop();
+        }
+
+        PULSE_NANOS.record(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.activeAnimations = animations;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return whether the tween is still running
+     */
+    private boolean advance(Tween tween, long now) {
+        if (tween.property == BACKGROUND) {
+            ((Region) tween.node).setBackground(tween.frames[tween.frame++]);
+            return tween.frame < tween.frames.length;
+        }
+
+        if (tween.start < 0) {
+            tween.start = now;
+        }
+        double progress = Math.min(1, (double) (now - tween.start) / tween.duration);
+        double position = tween.pulse ? 1 - Math.abs(2 * progress - 1) : progress;
+        double value = tween.from + (tween.to - tween.from) * position;
+        tween.node.setScaleX(value);
+        tween.node.setScaleY(value);
+        return progress < 1;
+    }
+
+    private void release(int index) {
+        Tween tween = active[index];
+        active[index] = active[--activeCount];
+        active[activeCount] = null;
+        tween.node = null;
+        tween.frames = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, free.length * 2);
+        }
+        free[freeCount++] = tween;
+    }
+}
@@ -0,0 +1,54 @@
+package models;
+
+import engine.MoveDelta;
+import javafx.scene.Node;
+
+/**
+ * What {@link Grid} draws the board on. Cells are addressed the way {@code Grid} addresses them: {@code row} is
+ * the horizontal position and {@code column} the vertical one.
+ */
+interface BoardView {
+    Node getNode();
+
+    int getNumber(int row, int column);
+
+    void setNumber(int row, int column, int number);
+
+    /**
+     * Empties every cell and drops running animations, so the view can show a new game.
+     */
+    void reset();
+
+    void showMergeAnimation(int row, int column);
+
+    void showSpawnAnimation(int row, int column);
+
+    /**
+     * Shows everything one move did, including its spawn, in one batch.
+     */
+    void apply(MoveDelta delta);
+
+    /**
+     * Shows every cell of {@code frame}, touching only the cells that changed.
+     */
+    default void show(Frame frame) {
+        int dimension = frame.getDimension();
+        for (int index = 0; index < frame.getCellCount(); index++) {
+            int exponent = frame.getExponent(index);
+            int number = exponent == 0 ? 0 : 1 << exponent;
+            int row = index % dimension;
+            int column = index / dimension;
+            if (getNumber(row, column) != number) {
+                setNumber(row, column, number);
+            }
+        }
+    }
+
+    /**
+     * @return whether the view animates moves from {@link #apply(MoveDelta)}; if not, {@link Grid} skips
+     * recording them and sends whole frames
+     */
+    default boolean animatesMoves() {
+        return true;
+    }
+}
@@ -0,0 +1,117 @@
+package models;
+
+import controller.Controller;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Board views kept between games, at most {@value #CAPACITY} of them, one per dimension and the least recently used
+ * dropped first. A game takes the view for its dimension and resets it instead of building thousands of nodes;
+ * {@link #prepare(int)} builds a missing one on a background thread ahead of time. Only the newest prepare request
+ * is built, so scrolling through dimensions does not queue up a view for each.
+ */
+class BoardViewPool {
+    private static final BoardViewPool POOL = new BoardViewPool();
+    private static final int CAPACITY = 4;
+
+    private final Map<Integer, CompletableFuture<BoardView>> views = new LinkedHashMap<>(16, 0.75f, true);
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "board-view-builder");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private volatile int wanted;
+
+    private BoardViewPool() {
+    }
+
+    static BoardViewPool getInstance() {
+        return POOL;
+    }
+
+    /**
+     * Starts building a view for {@code dimension} in the background unless one is cached or on its way.
+     */
+    synchronized void prepare(int dimension) {
+        wanted = dimension;
+        if (views.containsKey(dimension)) {
+            return;
+        }
+        CompletableFuture<BoardView> view = new CompletableFuture<>();
+        views.put(dimension, view);
+        trim();
+        builder.execute(() -> {
+            if (wanted != dimension) {
+                discard(dimension, view);
+                view.complete(null);
+                return;
+            }
+            try {
+                view.complete(build(dimension));
+            } catch (RuntimeException e) {
+                discard(dimension, view);
+                view.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * @return an empty view for {@code dimension}, waiting for one being prepared rather than building another;
+     * must run on the FX thread
+     */
+    BoardView acquire(int dimension) {
+        CompletableFuture<BoardView> cached;
+        synchronized (this) {
+            cached = views.remove(dimension);
+        }
+        BoardView view = null;
+        if (cached != null && (cached.isDone() || wanted == dimension)) {
+            try {
+                view = cached.join();
+            } catch (RuntimeException e) {
+                System.err.println("cannot prepare board view: " + e.getMessage());
+            }
+        }
+        if (view == null) {
+            view = build(dimension);
+        }
+        view.reset();
+        return view;
+    }
+
+    /**
+     * Keeps {@code view} for the next game on its dimension.
+     */
+    synchronized void release(int dimension, BoardView view) {
+        views.put(dimension, CompletableFuture.completedFuture(view));
+        trim();
+    }
+
+    private synchronized void discard(int dimension, CompletableFuture<BoardView> view) {
+        views.remove(dimension, view);
+    }
+
+    private void trim() {
+        Iterator<CompletableFuture<BoardView>> eldest = views.values().iterator();
+        while (views.size() > CAPACITY && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static BoardView build(int dimension) {
+        if (dimension >= ViewportBoardView.MIN_DIMENSION) {
+            return new ViewportBoardView(dimension);
+        }
+        if (Controller.getInstance().isCanvasRenderer()) {
+            return new CanvasBoardView(dimension);
+        }
+        return new TileBoardView(dimension);
+    }
+}
@@ -0,0 +1,338 @@
+package models;
+
+import engine.MoveDelta;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+/**
+ * Draws the whole board on one {@link Canvas}. Each tile value is rasterized once into an image with its fill,
+ * rounded corners and number; a pulse of the {@link Animator} only repaints cells whose value changed or that are
+ * animating. While the tiles of a move slide into place the whole board is repainted; merge and spawn animations
+ * start once they arrive.
+ */
+class CanvasBoardView implements BoardView, Animator.Ticker {
+    private static final Color BACKGROUND = Color.rgb(188, 171, 156);
+    private static final double SIZE = 1000;
+    private static final double CORNER_RADIUS = 10;
+    private static final double TILE_ARC = 20;
+    private static final long MERGE_NANOS = 400_000_000L;
+    private static final long SPAWN_NANOS = 100_000_000L;
+    private static final long SLIDE_NANOS = 80_000_000L;
+    private static final double MERGE_GROWTH = 0.1;
+    private static final double SPAWN_START = 0.7;
+    private static final byte NONE = 0;
+    private static final byte MERGE = 1;
+    private static final byte SPAWN = 2;
+
+    private final int dimension;
+    private final double scale;
+    private final double tileSize;
+    private final double pitch;
+    private final double origin;
+    private final double margin;
+    private final int[] numbers;
+    private final Image[] tileImages = new Image[64];
+    private final boolean[] dirty;
+    private final int[] dirtyCells;
+    private int dirtyCount;
+    private final byte[] animation;
+    private final long[] animationStart;
+    private final int[] animatedCells;
+    private int animatedCount;
+    private final int[] slideFrom;
+    private final int[] slideTo;
+    private final int[] slideNumber;
+    private int slideCount;
+    private long slideStart;
+    private boolean sliding;
+    private final boolean[] hidden;
+    private final int[] arrivingMerges;
+    private int arrivingMergeCount;
+    private int arrivingSpawn = -1;
+    private final Canvas canvas = new Canvas(SIZE, SIZE);
+    private final GraphicsContext graphics = canvas.getGraphicsContext2D();
+
+    CanvasBoardView(int dimension) {
+        this.dimension = dimension;
+        this.scale = 4.0 / dimension;
+        this.tileSize = 200 * scale;
+        double gap = 25 * scale;
+        this.pitch = tileSize + gap;
+        this.origin = (SIZE - dimension * tileSize - (dimension - 1) * gap) / 2;
+        this.margin = gap / 2;
+
+        int cells = dimension * dimension;
+        this.numbers = new int[cells];
+        this.dirty = new boolean[cells];
+        this.dirtyCells = new int[cells];
+        this.animation = new byte[cells];
+        this.animationStart = new long[cells];
+        this.animatedCells = new int[cells];
+        this.slideFrom = new int[cells];
+        this.slideTo = new int[cells];
+        this.slideNumber = new int[cells];
+        this.hidden = new boolean[cells];
+        this.arrivingMerges = new int[cells];
+    }
+
+    @Override
+    public Node getNode() {
+        return canvas;
+    }
+
+    @Override
+    public int getNumber(int row, int column) {
+        return numbers[index(row, column)];
+    }
+
+    @Override
+    public void setNumber(int row, int column, int number) {
+        finishSlide();
+        int index = index(row, column);
+        numbers[index] = number;
+        markDirty(index);
+    }
+
+    /**
+     * Also paints the empty board, which the constructor leaves to the FX thread.
+     */
+    @Override
+    public void reset() {
+        sliding = false;
+        slideCount = 0;
+        arrivingMergeCount = 0;
+        arrivingSpawn = -1;
+        for (int i = 0; i < animatedCount; i++) {
+            animation[animatedCells[i]] = NONE;
+        }
+        animatedCount = 0;
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty[dirtyCells[i]] = false;
+        }
+        dirtyCount = 0;
+        Arrays.fill(numbers, 0);
+        Arrays.fill(hidden, false);
+
+        double inset = 35.0 / Math.pow(scale, 0.2);
+        graphics.clearRect(0, 0, SIZE, SIZE);
+        graphics.setFill(BACKGROUND);
+        graphics.fillRoundRect(inset, inset, SIZE - 2 * inset, SIZE - 2 * inset, 2 * CORNER_RADIUS, 2 * CORNER_RADIUS);
+        for (int index = 0; index < numbers.length; index++) {
+            drawCell(index, 0, 1);
+        }
+    }
+
+    @Override
+    public void showMergeAnimation(int row, int column) {
+        animate(index(row, column), MERGE);
+    }
+
+    @Override
+    public void showSpawnAnimation(int row, int column) {
+        animate(index(row, column), SPAWN);
+    }
+
+    @Override
+    public void apply(MoveDelta delta) {
+        finishSlide();
+
+        for (int i = 0; i < delta.getSlideCount(); i++) {
+            int from = viewIndex(delta.getSlideFrom(i));
+            int to = viewIndex(delta.getSlideTo(i));
+            numbers[from] = 0;
+            numbers[to] = 1 << delta.getSlideExponent(i);
+            hidden[to] = true;
+            slideFrom[slideCount] = from;
+            slideTo[slideCount] = to;
+            slideNumber[slideCount] = numbers[to];
+            slideCount++;
+        }
+        for (int i = 0; i < delta.getMergeCount(); i++) {
+            int cell = viewIndex(delta.getMergeCell(i));
+            numbers[cell] = 1 << delta.getMergeExponent(i);
+            arrivingMerges[arrivingMergeCount++] = cell;
+        }
+        if (delta.getSpawnCell() >= 0) {
+            arrivingSpawn = viewIndex(delta.getSpawnCell());
+            numbers[arrivingSpawn] = 1 << delta.getSpawnExponent();
+            hidden[arrivingSpawn] = true;
+        }
+
+        sliding = true;
+        slideStart = -1;
+        Animator.getInstance().schedule(this);
+    }
+
+    private void finishSlide() {
+        if (!sliding) {
+            return;
+        }
+        sliding = false;
+        slideCount = 0;
+        for (int index = 0; index < numbers.length; index++) {
+            hidden[index] = false;
+            markDirty(index);
+        }
+        for (int i = 0; i < arrivingMergeCount; i++) {
+            animate(arrivingMerges[i], MERGE);
+        }
+        arrivingMergeCount = 0;
+        if (arrivingSpawn >= 0) {
+            animate(arrivingSpawn, SPAWN);
+            arrivingSpawn = -1;
+        }
+    }
+
+    private void drawSlide(double progress) {
+        for (int index = 0; index < numbers.length; index++) {
+            drawCell(index, hidden[index] ? 0 : numbers[index], 1);
+        }
+        for (int i = 0; i < slideCount; i++) {
+            double fromX = origin + (slideFrom[i] / dimension) * pitch;
+            double fromY = origin + (slideFrom[i] % dimension) * pitch;
+            double toX = origin + (slideTo[i] / dimension) * pitch;
+            double toY = origin + (slideTo[i] % dimension) * pitch;
+            graphics.drawImage(
+                    tileImage(slideNumber[i]),
+                    fromX + (toX - fromX) * progress, fromY + (toY - fromY) * progress, tileSize, tileSize
+            );
+        }
+    }
+
+    private int index(int row, int column) {
+        return row * dimension + column;
+    }
+
+    private int viewIndex(int cell) {
+        return index(cell % dimension, cell / dimension);
+    }
+
+    private void markDirty(int index) {
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyCells[dirtyCount++] = index;
+            Animator.getInstance().schedule(this);
+        }
+    }
+
+    private void animate(int index, byte kind) {
+        if (animation[index] == NONE) {
+            animatedCells[animatedCount++] = index;
+        }
+        animation[index] = kind;
+        animationStart[index] = -1;
+        Animator.getInstance().schedule(this);
+    }
+
+    @Override
+    public boolean tick(long now) {
+        if (sliding) {
+            if (slideStart < 0) {
+                slideStart = now;
+            }
+            double progress = (double) (now - slideStart) / SLIDE_NANOS;
+            if (progress < 1) {
+                drawSlide(progress);
+                return true;
+            }
+            finishSlide();
+        }
+
+        for (int i = 0; i < animatedCount; ) {
+            int index = animatedCells[i];
+            if (animationStart[index] < 0) {
+                animationStart[index] = now;
+            }
+            double factor = animationFactor(animation[index], now - animationStart[index]);
+            if (factor < 0) {
+                animation[index] = NONE;
+                animatedCells[i] = animatedCells[--animatedCount];
+                factor = 1;
+            } else {
+                i++;
+            }
+            dirty[index] = false;
+            drawCell(index, numbers[index], factor);
+        }
+
+        for (int i = 0; i < dirtyCount; i++) {
+            int index = dirtyCells[i];
+            if (dirty[index]) {
+                dirty[index] = false;
+                drawCell(index, numbers[index], 1);
+            }
+        }
+        dirtyCount = 0;
+
+        return animatedCount > 0;
+    }
+
+    /**
+     * @return the tile size factor {@code elapsed} nanoseconds into an animation, or -1 once it is over
+     */
+    private static double animationFactor(byte kind, long elapsed) {
+        if (kind == MERGE) {
+            if (elapsed >= MERGE_NANOS) {
+                return -1;
+            }
+            double half = MERGE_NANOS / 2.0;
+            double progress = elapsed < half ? elapsed / half : (MERGE_NANOS - elapsed) / half;
+            return 1 + MERGE_GROWTH * progress;
+        }
+        if (elapsed >= SPAWN_NANOS) {
+            return -1;
+        }
+        return SPAWN_START + (1 - SPAWN_START) * elapsed / SPAWN_NANOS;
+    }
+
+    private void drawCell(int index, int number, double factor) {
+        int row = index / dimension;
+        int column = index % dimension;
+        double x = origin + row * pitch;
+        double y = origin + column * pitch;
+
+        graphics.setFill(BACKGROUND);
+        graphics.fillRect(x - margin, y - margin, tileSize + 2 * margin, tileSize + 2 * margin);
+
+        double size = tileSize * factor;
+        double offset = (tileSize - size) / 2;
+        graphics.drawImage(tileImage(number), x + offset, y + offset, size, size);
+    }
+
+    private Image tileImage(int number) {
+        int exponent = number == 0 ? 0 : Integer.numberOfTrailingZeros(number);
+        Image image = tileImages[exponent];
+        if (image == null) {
+            image = rasterize(number);
+            tileImages[exponent] = image;
+        }
+        return image;
+    }
+
+    private Image rasterize(int number) {
+        double size = Math.ceil(tileSize * (1 + MERGE_GROWTH));
+        Canvas tile = new Canvas(size, size);
+        GraphicsContext context = tile.getGraphicsContext2D();
+        context.setFill(Tile.backgroundColor(number));
+        context.fillRoundRect(0, 0, size, size, TILE_ARC, TILE_ARC);
+        if (number != 0) {
+            context.setFill(Tile.textColor(number));
+            context.setFont(Tile.font(number, scale * size / tileSize));
+            context.setTextAlign(TextAlignment.CENTER);
+            context.setTextBaseline(VPos.CENTER);
+            context.fillText(String.valueOf(number), size / 2, size / 2);
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return tile.snapshot(parameters, null);
+    }
+}
@@ -0,0 +1,76 @@
+package models;
+
+import engine.MoveDelta;
+
+/**
+ * One state of a game as published by the engine thread for the FX thread to draw. Nothing in it changes after it
+ * is published until the FX thread has drawn it and hands its cells and delta back to the engine thread for a later
+ * frame.
+ */
+final class Frame {
+    private final long sequence;
+    private final int dimension;
+    private final byte[] cells;
+    private final int score;
+    private final MoveDelta delta;
+    private final boolean finished;
+
+    Frame(long sequence, int dimension, byte[] cells, int score, MoveDelta delta, boolean finished) {
+        this.sequence = sequence;
+        this.dimension = dimension;
+        this.cells = cells;
+        this.score = score;
+        this.delta = delta;
+        this.finished = finished;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int getDimension() {
+        return dimension;
+    }
+
+    int getExponent(int index) {
+        return cells[index];
+    }
+
+    void copyCells(byte[] target) {
+        System.arraycopy(cells, 0, target, 0, cells.length);
+    }
+
+    /**
+     * @return the cells, for the engine thread to fill again once this frame has been drawn
+     */
+    byte[] recycleCells() {
+        return cells;
+    }
+
+    /**
+     * @return the delta, null if there is none, for the engine thread to record a later move into once this frame
+     * has been drawn
+     */
+    MoveDelta recycleDelta() {
+        return delta;
+    }
+
+    int getCellCount() {
+        return cells.length;
+    }
+
+    int getScore() {
+        return score;
+    }
+
+    /**
+     * @return how the previous frame became this one, null if it has to be drawn from the cells
+     */
+    MoveDelta getDelta() {
+        return delta;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+}
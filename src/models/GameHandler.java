@@ -1,7 +1,6 @@
 package models;
 
 import controller.Controller;
-import javafx.animation.AnimationTimer;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
@@ -15,37 +14,83 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import metrics.Metrics;
+import save.Snapshot;
 
 import java.util.Optional;
 
+/**
+ * The game screen. Its score box, buttons and overlay are built once; every game gets a board view from the
+ * {@link BoardViewPool} and gives it back on exit.
+ */
 public class GameHandler {
-    private static Color BACKGROUND = Color.rgb(188, 171, 156);
+    private static final GameHandler GAME_HANDLER = new GameHandler();
     private static Color OTHER_BACKGROUND = Color.rgb(188, 171, 156, 0.8);
     private static CornerRadii DEFAULT_CORNER_RADIUS = new CornerRadii(10);
+    private static final Background[] HOVER_FRAMES = makeButtonFrames(0.8, 1);
+    private static final Background[] EXIT_FRAMES = makeButtonFrames(1, 0.6);
+    private static final Color OVERLAY_BACKGROUND = Color.rgb(0, 0, 0, 0.7);
+    private static final long OVERLAY_INTERVAL_NANOS = 500_000_000;
     private Scene scene;
+    private Group root;
     private int dimension;
     private Label scoreValue;
+    private Grid grid;
+    private BoardView view;
+    private Label metricsOverlay;
 
-    GameHandler(int dimension) {
-        this.dimension = dimension;
+    private GameHandler() {
+    }
+
+    static GameHandler getInstance() {
+        return GAME_HANDLER;
+    }
+
+    void start(int dimension) {
+        start(dimension, null);
     }
 
-    public void start() {
-        Group root = new Group();
-        scene = new Scene(root, 1300, 1000);
+    void start(Snapshot snapshot) {
+        start(snapshot.getDimension(), snapshot);
+    }
 
-        Controller.getInstance().setScene(scene);
+    private void start(int dimension, Snapshot snapshot) {
+        this.dimension = dimension;
+        view = BoardViewPool.getInstance().acquire(dimension);
 
-        VBox scoreBox = makeScoreBoard();
-        Button exitButton = makeExitButton();
-        Grid grid = new Grid(dimension, scoreValue);
-        GridPane gridPane = makeAndRenderGameGrid(grid);
+        if (root == null) {
+            root = new Group();
+            Controller.getInstance().setRoot(root);
+            scene = Controller.getInstance().getScene();
+            root.getChildren().addAll(makeScoreBoard(), makeExitButton(), makeMetricsOverlay());
+        } else {
+            Controller.getInstance().setRoot(root);
+        }
+        root.getChildren().add(0, view.getNode());
+        scene.setCursor(Cursor.DEFAULT);
 
-        root.getChildren().addAll(gridPane, scoreBox, exitButton);
+        scoreValue.setText("0");
+        grid = snapshot == null ? new Grid(dimension, scoreValue, view) : new Grid(snapshot, scoreValue, view);
+        grid.start();
 
         setKeyHandler(grid);
     }
 
+    /**
+     * Ends the game on screen, saving it first if {@code save} is set, and goes back to the menu.
+     */
+    void exit(boolean save) {
+        if (grid == null) {
+            return;
+        }
+        grid.stop(save);
+        grid = null;
+        root.getChildren().remove(view.getNode());
+        BoardViewPool.getInstance().release(dimension, view);
+        view = null;
+        MainMenu.getInstance().start();
+    }
+
     private void setKeyHandler(Grid grid) {
         scene.setOnKeyPressed(keyEvent -> {
             switch (keyEvent.getCode()) {
@@ -61,10 +106,51 @@ public class GameHandler {
                 case LEFT:
                     grid.moveLeft();
                     break;
+                case Z:
+                    if (keyEvent.isShortcutDown())
+                        grid.undo();
+                    break;
+                case Y:
+                    if (keyEvent.isShortcutDown())
+                        grid.redo();
+                    break;
+                case F3:
+                    toggleMetricsOverlay();
+                    break;
             }
         });
     }
 
+    private Label makeMetricsOverlay() {
+        metricsOverlay = new Label();
+        metricsOverlay.setFont(Font.font("Monospaced", 14));
+        metricsOverlay.setTextFill(Color.WHITE);
+        metricsOverlay.setBackground(new Background(new BackgroundFill(OVERLAY_BACKGROUND, CornerRadii.EMPTY, Insets.EMPTY)));
+        metricsOverlay.setPadding(new Insets(10));
+        metricsOverlay.relocate(10, 10);
+        metricsOverlay.setMouseTransparent(true);
+        metricsOverlay.setVisible(false);
+        return metricsOverlay;
+    }
+
+    private void toggleMetricsOverlay() {
+        if (metricsOverlay.isVisible()) {
+            metricsOverlay.setVisible(false);
+            return;
+        }
+        Metrics.Window window = Metrics.getInstance().newWindow();
+        long[] lastUpdate = {0};
+        metricsOverlay.setText(window.text());
+        metricsOverlay.setVisible(true);
+        Animator.getInstance().schedule(now -> {
+            if (now - lastUpdate[0] >= OVERLAY_INTERVAL_NANOS) {
+                lastUpdate[0] = now;
+                metricsOverlay.setText(window.text());
+            }
+            return metricsOverlay.isVisible();
+        });
+    }
+
     private Button makeExitButton() {
         Button exitButton = new Button("Exit");
         exitButton.setFont(Font.font("FreeSans", FontWeight.EXTRA_BOLD, 60));
@@ -92,7 +178,7 @@ public class GameHandler {
 
             optional.ifPresent(acton -> {
                 if (acton == ButtonType.YES) {
-                    new MainMenu().start();
+                    exit(true);
                 } else {
                     alert.close();
                 }
@@ -109,24 +195,6 @@ public class GameHandler {
         return alert;
     }
 
-    private GridPane makeAndRenderGameGrid(Grid grid) {
-        GridPane gridPane = new GridPane();
-        gridPane.setBackground(
-                new Background(
-                        new BackgroundFill(
-                                BACKGROUND, DEFAULT_CORNER_RADIUS, new Insets(35.0 / Math.pow(grid.getScale(), 0.2))
-                        )
-                )
-        );
-        gridPane.relocate(0, 0);
-        gridPane.setMinSize(1000, 1000);
-        gridPane.setVgap(25 * grid.getScale());
-        gridPane.setHgap(25 * grid.getScale());
-        gridPane.setAlignment(Pos.CENTER);
-        grid.draw(gridPane);
-        return gridPane;
-    }
-
     private VBox makeScoreBoard() {
         Label scoreLabel = makeScoreLabel();
         makeScoreValue();
@@ -166,62 +234,28 @@ public class GameHandler {
     }
 
     private void setOnExitAnimation(Button button) {
-        AnimationTimer defaultAnimation = new AnimationTimer() {
-            private double currentTransparency = 1;
-
-            @Override
-            public void handle(long now) {
-                if (currentTransparency >= 0.6) {
-                    button.setBackground(
-                            new Background(
-                                    new BackgroundFill(
-                                            Color.rgb(188, 171, 156, currentTransparency),
-                                            DEFAULT_CORNER_RADIUS,
-                                            new Insets(0)
-                                    )
-                            )
-                    );
-
-                    currentTransparency -= 0.05;
-                } else {
-                    this.stop();
-                    currentTransparency = 1;
-                }
-            }
-        };
         button.setOnMouseExited(mouseEvent -> {
             scene.setCursor(Cursor.DEFAULT);
-            defaultAnimation.start();
+            Animator.getInstance().backgrounds(button, EXIT_FRAMES);
         });
     }
 
     private void setOnHoverAnimation(Button button) {
-        AnimationTimer hoverAnimation = new AnimationTimer() {
-            private double currentTransparency = 0.8;
-
-            @Override
-            public void handle(long now) {
-                if (currentTransparency <= 1) {
-                    button.setBackground(
-                            new Background(
-                                    new BackgroundFill(
-                                            Color.rgb(188, 171, 156, currentTransparency),
-                                            DEFAULT_CORNER_RADIUS,
-                                            new Insets(0)
-                                    )
-                            )
-                    );
-
-                    currentTransparency += 0.05;
-                } else {
-                    this.stop();
-                    currentTransparency = 0.6;
-                }
-            }
-        };
         button.setOnMouseEntered(mouseEvent -> {
             scene.setCursor(Cursor.HAND);
-            hoverAnimation.start();
+            Animator.getInstance().backgrounds(button, HOVER_FRAMES);
         });
     }
+
+    private static Background[] makeButtonFrames(double fromOpacity, double toOpacity) {
+        int count = (int) Math.round(Math.abs(toOpacity - fromOpacity) / 0.05) + 1;
+        Background[] frames = new Background[count];
+        for (int i = 0; i < count; i++) {
+            double opacity = fromOpacity + (toOpacity - fromOpacity) * i / (count - 1);
+            frames[i] = new Background(
+                    new BackgroundFill(Color.rgb(188, 171, 156, opacity), DEFAULT_CORNER_RADIUS, Insets.EMPTY)
+            );
+        }
+        return frames;
+    }
 }
@@ -1,270 +1,462 @@
 package models;
 
-import javafx.animation.AnimationTimer;
+import controller.Controller;
+import engine.BitBoard;
+import engine.Board;
+import engine.Direction;
+import engine.GameRandom;
+import engine.History;
+import engine.MoveDelta;
+import engine.MoveQueue;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
-import javafx.scene.layout.*;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
-
-import java.util.Optional;
-import java.util.Random;
-
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import metrics.MoveEvent;
+import replay.Replay;
+import save.SaveStore;
+import save.Snapshot;
+import scores.ScoreRecord;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A running game. Keys only queue moves; a game thread owns the boards, applies the moves and publishes a
+ * {@link Frame} after each, and the FX thread draws the newest frame on the next pulse. When the game thread gets
+ * more than one frame ahead the skipped frames are coalesced into one redraw of the newest, unless
+ * {@code -Dgame.coalesceMoves=false}, in which case the game thread waits for each frame to be drawn. Frame cells
+ * are handed back once drawn and refilled for a later frame, and undo keeps at most
+ * {@code -Dgame.undoMemory} bytes of boards, so huge boards neither churn nor hoard memory.
+ * <p>
+ * Every game's replay is archived once: on game over, or, for a game left unfinished in the save slot, when a new
+ * game replaces it there.
+ */
 class Grid {
+    private static final int AUTOSAVE_INTERVAL = 16;
+    private static final int UNDO_DEPTH = Math.max(2, Integer.getInteger("game.undoDepth", 1000));
+    private static final int UNDO_MEMORY = Math.max(0, Integer.getInteger("game.undoMemory", 32 << 20));
+    private static final int QUEUE_CAPACITY = Math.max(1, Integer.getInteger("game.moveQueue", 64));
+    private static final boolean COALESCE = Boolean.parseBoolean(System.getProperty("game.coalesceMoves", "true"));
+    private static final int UNDO = 4;
+    private static final int REDO = 5;
+    private static final Metrics METRICS = Metrics.getInstance();
+    private static final LatencyHistogram MOVE_NANOS = METRICS.histogram("moveNanos");
+    private static final LatencyHistogram SPAWN_NANOS = METRICS.histogram("spawnNanos");
+    private static final LatencyHistogram GAME_OVER_CHECK_NANOS = METRICS.histogram("gameOverCheckNanos");
+    private static final LatencyHistogram MOVE_ALLOCATED_BYTES = METRICS.histogram("moveAllocatedBytes");
+    private static final LatencyHistogram RENDER_NANOS = METRICS.histogram("renderNanos");
     private int dimension;
-    private double scale;
     private Label scoreBoard;
-    private Tile[][] tiles;
-    private boolean checkingAvailableMoves;
+    private BoardView view;
     private int score;
-    private Random rand = new Random();
-    private GridPane gridPane;
-
-    Grid(int dimension, Label scoreLabel) {
-        this.dimension = dimension;
-        this.scale = 4.0 / dimension;
-        this.scoreBoard = scoreLabel;
-        this.tiles = new Tile[dimension][dimension];
+    private GameRandom rand;
+    private Replay replay;
+    private History history;
+    private MoveDelta delta;
+    private boolean finished;
+    private boolean restored;
+    private boolean packed;
+    private long board;
+    private Board model;
+    private final MoveQueue queue = new MoveQueue(QUEUE_CAPACITY);
+    private final Thread engine = new Thread(this::run, "game-engine");
+    private final AtomicBoolean renderRequested = new AtomicBoolean();
+    private final AtomicReference<byte[]> spareCells = new AtomicReference<>();
+    private final AtomicReference<MoveDelta> spareDelta = new AtomicReference<>();
+    private final Animator.Ticker renderer = this::render;
+    private volatile Frame latest;
+    private volatile long published;
+    private volatile long rendered;
+    private volatile boolean stopped;
+    private volatile boolean saveOnStop;
+    private long startedAt;
+
+    Grid(int dimension, Label scoreLabel, BoardView view) {
+        this(scoreLabel, view, new Replay(dimension, ThreadLocalRandom.current().nextLong()));
+    }
 
-        for (int i = 0; i < dimension; i++) {
-            for (int j = 0; j < dimension; j++) {
-                tiles[i][j] = new Tile(0, this);
-            }
+    Grid(Snapshot snapshot, Label scoreLabel, BoardView view) {
+        this(scoreLabel, view, snapshot.getReplay().copy());
+        rand.setState(snapshot.getRandomState());
+
+        for (int index = 0; index < dimension * dimension; index++) {
+            int exponent = snapshot.getExponent(index);
+            if (packed)
+                board = BitBoard.set(board, index, exponent);
+            else
+                model.set(index, exponent);
+            view.setNumber(index % dimension, index / dimension, exponent == 0 ? 0 : 1 << exponent);
         }
+        if (packed && BitBoard.maxExponent(board) == BitBoard.MAX_EXPONENT)
+            unpack();
+
+        score = snapshot.getScore();
+        scoreBoard.setText(String.valueOf(score));
+        restored = true;
     }
 
-    double getScale() {
-        return scale;
+    private Grid(Label scoreLabel, BoardView view, Replay replay) {
+        this.dimension = replay.getDimension();
+        this.packed = dimension == BitBoard.DIMENSION;
+        this.scoreBoard = scoreLabel;
+        this.view = view;
+        this.rand = new GameRandom(replay.getSeed());
+        this.replay = replay;
+        int cells = dimension * dimension;
+        this.history = new History(cells, Math.max(2, Math.min(UNDO_DEPTH, UNDO_MEMORY / cells)));
+        if (packed || view.animatesMoves())
+            this.delta = new MoveDelta(dimension);
+        if (!packed)
+            this.model = new Board(dimension);
+        engine.setDaemon(true);
     }
 
     boolean moveUp() {
-        return move(0, -1, false);
+        return submit(Direction.UP.ordinal());
     }
 
     boolean moveDown() {
-        return move(0, 1, true);
+        return submit(Direction.DOWN.ordinal());
     }
 
     boolean moveLeft() {
-        return move(-1, 0, false);
+        return submit(Direction.LEFT.ordinal());
     }
 
     boolean moveRight() {
-        return move(1, 0, true);
+        return submit(Direction.RIGHT.ordinal());
     }
 
-    private boolean move(int rowChange, int columnChange, boolean reverse) {
-        boolean moved = false;
-
-        for (int i = 0; i < dimension; i++) {
-            for (int j = 0; j < dimension; j++) {
-                int row, column;
-                if (reverse) {
-                    row = dimension - 1 - i;
-                    column = dimension - 1 - j;
-                } else {
-                    row = i;
-                    column = j;
-                }
+    boolean undo() {
+        return submit(UNDO);
+    }
 
-                int nextRow = row + rowChange;
-                int nextColumn = column + columnChange;
+    boolean redo() {
+        return submit(REDO);
+    }
 
-                while (nextRow >= 0 && nextRow < dimension && nextColumn >= 0 && nextColumn < dimension) {
+    /**
+     * Ends the game thread, saving the game first if {@code save} is set, and waits for it, so the save is visible to
+     * the menu as soon as this returns. The move being applied finishes; moves still queued are dropped.
+     */
+    void stop(boolean save) {
+        saveOnStop = save;
+        stopped = true;
+        LockSupport.unpark(engine);
+        try {
+            engine.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-                    Tile nextTile = tiles[nextRow][nextColumn];
-                    Tile currentTile = tiles[row][column];
+    private boolean submit(int command) {
+        if (stopped || !queue.offer(command)) {
+            return false;
+        }
+        LockSupport.unpark(engine);
+        return true;
+    }
 
-                    if (nextTile.getNumber() == 0) {
+    private void run() {
+        if (!restored) {
+            archiveReplacedGame();
+        }
+        while (!stopped && !finished) {
+            if (!COALESCE && rendered < published) {
+                LockSupport.park(this);
+                continue;
+            }
+            int command = queue.poll();
+            if (command < 0) {
+                LockSupport.park(this);
+                continue;
+            }
+            execute(command);
+        }
+        if (saveOnStop) {
+            saveGame();
+        }
+    }
 
-                        if (checkingAvailableMoves)
-                            return true;
-                        moved = chaneNumber(moved, nextTile, currentTile);
-                        row = nextRow;
-                        column = nextColumn;
-                        nextRow += rowChange;
-                        nextColumn += columnChange;
+    private void execute(int command) {
+        if (command == UNDO) {
+            if (applyUndo())
+                publish(null);
+        } else if (command == REDO) {
+            if (applyRedo())
+                publish(null);
+        } else if (applyMove(Direction.of(command))) {
+            publish(delta);
+            if (delta != null)
+                delta = nextDelta();
+        }
+    }
 
-                    } else if (nextTile.canMergeWith(currentTile)) {
+    /**
+     * @return the delta of a drawn frame, or a new one while both are in flight
+     */
+    private MoveDelta nextDelta() {
+        MoveDelta spare = spareDelta.getAndSet(null);
+        return spare == null ? new MoveDelta(dimension) : spare;
+    }
 
-                        if (checkingAvailableMoves)
-                            return true;
+    private boolean applyMove(Direction direction) {
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        long allocated = METRICS.allocatedBytes();
+        long start = System.nanoTime();
+        long spawnNanos = 0;
+        long gameOverCheckNanos = 0;
 
-                        merge(currentTile, nextTile, nextRow, nextColumn);
-                        moved = true;
-                        break;
-                    } else {
-                        break;
-                    }
-                }
+        if (delta != null)
+            delta.clear();
+        boolean moved = packed ? movePacked(direction) : model.move(direction, delta);
 
+        if (moved) {
+            replay.add(direction);
+            long spawnStart = System.nanoTime();
+            int index = addRandomTile();
+            spawnNanos = System.nanoTime() - spawnStart;
+            if (delta != null)
+                delta.setSpawn(index, exponent(index));
+            score += packed ? delta.getScore() : model.getLastMoveScore();
+            pushHistory(direction);
+            if (packed && BitBoard.maxExponent(board) == BitBoard.MAX_EXPONENT)
+                unpack();
+            long checkStart = System.nanoTime();
+            boolean over = !movesAvailable();
+            gameOverCheckNanos = System.nanoTime() - checkStart;
+            if (over) {
+                finish();
+            } else if (replay.getMoveCount() % AUTOSAVE_INTERVAL == 0) {
+                saveGame();
             }
         }
 
+        MOVE_NANOS.record(System.nanoTime() - start);
         if (moved) {
-            clearMerged();
-            addRandomTile();
-            if (!movesAvailable()) {
-                showFinishAlert();
-            }
+            SPAWN_NANOS.record(spawnNanos);
+            GAME_OVER_CHECK_NANOS.record(gameOverCheckNanos);
+        }
+        if (allocated >= 0) {
+            allocated = METRICS.allocatedBytes() - allocated;
+            MOVE_ALLOCATED_BYTES.record(allocated);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.dimension = dimension;
+            event.direction = direction.name();
+            event.moved = moved;
+            event.spawnNanos = spawnNanos;
+            event.gameOverCheckNanos = gameOverCheckNanos;
+            event.allocatedBytes = allocated;
+            event.commit();
         }
-
         return moved;
     }
 
-    private void merge(Tile currentTile, Tile nextTile, int nextRow, int nextColumn) {
-        int value = nextTile.mergeWith(currentTile);
-        showMergeAnimation(nextRow, nextColumn);
-        increaseScore(value);
-        currentTile.setNumber(0);
+    private boolean movePacked(Direction direction) {
+        long before = board;
+        board = BitBoard.move(before, direction);
+        if (board == before) {
+            return false;
+        }
+
+        BitBoard.describeMove(before, direction, delta);
+        return true;
     }
 
-    private boolean chaneNumber(boolean moved, Tile nextTile, Tile currentTile) {
-        if (currentTile.getNumber() > 0) {
-            nextTile.setNumber(currentTile.getNumber());
-            currentTile.setNumber(0);
-            moved = true;
+    /**
+     * Moves a 4x4 game from its packed word to a {@link Board} once it holds a 32768 tile, the largest a
+     * {@link BitBoard} merges into, so two of them still merge as they do on a {@link Board} and in a replay. The
+     * game stays on the {@link Board} until it ends.
+     */
+    private void unpack() {
+        model = new Board(dimension);
+        for (int index = 0; index < dimension * dimension; index++) {
+            model.set(index, BitBoard.get(board, index));
         }
-        return moved;
+        packed = false;
+    }
+
+    private int exponent(int index) {
+        return packed ? BitBoard.get(board, index) : model.get(index);
+    }
+
+    private byte[] cells() {
+        return fill(new byte[dimension * dimension]);
     }
 
-    private void showMergeAnimation(int row, int column) {
-        StackPane thisPane = (StackPane) gridPane.getChildren().get(row * dimension + column);
-        final Label[] labelWrapper = new Label[1];
-
-        thisPane.getChildren().stream().filter(
-                node -> node instanceof Label
-        ).forEach(node -> labelWrapper[0] = (Label) node);
-
-        new AnimationTimer() {
-            private long millisecond = (long) Math.pow(10, 6);
-            private long firstTime;
-            private long lastTime = 0;
-            private Label label = labelWrapper[0];
-            private double defaultFontSize = label.getFont().getSize();
-            private double fontSize = defaultFontSize;
-
-            @Override
-            public void handle(long now) {
-                if (firstTime == 0) {
-                    firstTime = now;
-                }
-                if (now > lastTime + 5 * millisecond) {
-                    lastTime = now;
-                    if (now - firstTime <= 200 * millisecond) {
-                        fontSize++;
-                    } else if (now - firstTime > 400 * millisecond) {
-                        fontSize = defaultFontSize;
-                        this.stop();
-                    } else if (now - firstTime > 200 * millisecond) {
-                        fontSize--;
-                    }
-                    label.setFont(
-                            Font.font("FreeSans", FontWeight.EXTRA_BOLD, fontSize)
-                    );
-                }
+    private byte[] fill(byte[] cells) {
+        for (int index = 0; index < cells.length; index++) {
+            cells[index] = (byte) exponent(index);
+        }
+        return cells;
+    }
+
+    private boolean applyUndo() {
+        if (finished || !history.undo()) {
+            return false;
+        }
+        restoreFromHistory();
+        replay.truncate(history.getMoveCount());
+        return true;
+    }
+
+    private boolean applyRedo() {
+        if (finished || !history.redo()) {
+            return false;
+        }
+        restoreFromHistory();
+        replay.add(history.getMove());
+        return true;
+    }
+
+    private void restoreFromHistory() {
+        if (packed)
+            board = history.restorePacked();
+        else
+            history.restore(model);
+        score = history.getScore();
+        rand.setState(history.getRandomState());
+    }
+
+    private void publish(MoveDelta change) {
+        byte[] cells = spareCells.getAndSet(null);
+        latest = new Frame(published + 1, dimension, cells == null ? cells() : fill(cells), score, change, finished);
+        published++;
+        if (renderRequested.compareAndSet(false, true)) {
+            Platform.runLater(() -> Animator.getInstance().schedule(renderer));
+        }
+    }
+
+    private boolean render(long now) {
+        renderRequested.set(false);
+        Frame frame = latest;
+        if (stopped || frame == null || frame.getSequence() == rendered) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        if (frame.getSequence() == rendered + 1 && frame.getDelta() != null)
+            view.apply(frame.getDelta());
+        else
+            view.show(frame);
+        RENDER_NANOS.record(System.nanoTime() - start);
+        spareCells.set(frame.recycleCells());
+        if (frame.getDelta() != null)
+            spareDelta.set(frame.recycleDelta());
+        scoreBoard.setText(String.valueOf(frame.getScore()));
+        rendered = frame.getSequence();
+        if (!COALESCE)
+            LockSupport.unpark(engine);
+
+        if (frame.isFinished()) {
+            showFinishAlert(frame.getScore());
+        }
+        return false;
+    }
+
+    private void pushHistory(Direction move) {
+        if (packed)
+            history.push(board, score, rand.getState(), replay.getMoveCount(), move);
+        else
+            history.push(model, score, rand.getState(), replay.getMoveCount(), move);
+    }
+
+    private void finish() {
+        finished = true;
+        long now = System.currentTimeMillis();
+        int maxExponent = packed ? BitBoard.maxExponent(board) : model.maxExponent();
+        Controller.getInstance().saveScore(new ScoreRecord(
+                now, dimension, score, maxExponent, replay.getMoveCount(), (int) Math.min(Integer.MAX_VALUE, now - startedAt)
+        ));
+        Controller.getInstance().saveReplay(replay);
+        Controller.getInstance().getSaveStore().deleteAsync();
+    }
+
+    /**
+     * Archives the replay of the saved game this new one replaces and clears the slot, so that game is recorded
+     * once it can no longer be continued.
+     */
+    private void archiveReplacedGame() {
+        SaveStore store = Controller.getInstance().getSaveStore();
+        try {
+            Snapshot replaced = store.load();
+            if (replaced == null) {
+                return;
             }
-        }.start();
+            Controller.getInstance().saveReplay(replaced.getReplay());
+            store.deleteAsync();
+        } catch (IOException e) {
+            System.err.println("cannot read the saved game to archive its replay: " + e.getMessage());
+        }
+    }
+
+    private void saveGame() {
+        if (!finished) {
+            Controller.getInstance().getSaveStore().saveAsync(snapshot());
+        }
     }
 
-    private void showFinishAlert() {
-        Alert alert = makeFinishAlert();
-        Optional<ButtonType> optional = alert.showAndWait();
+    private Snapshot snapshot() {
+        return new Snapshot(dimension, cells(), score, rand.getState(), replay.copy());
+    }
 
-        optional.ifPresent(action -> {
-            if (action == ButtonType.OK) {
-                new MainMenu().start();
+    private void showFinishAlert(int finalScore) {
+        Alert alert = makeFinishAlert(finalScore);
+        alert.setOnHidden(event -> {
+            if (alert.getResult() == ButtonType.OK) {
+                GameHandler.getInstance().exit(false);
             }
         });
+        alert.show();
     }
 
-    private Alert makeFinishAlert() {
+    private Alert makeFinishAlert(int finalScore) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setHeaderText("Game Over");
         alert.setTitle("Game is finished");
-        alert.setContentText("Your Score: " + score);
+        alert.setContentText("Your Score: " + finalScore);
         return alert;
     }
 
-    private void increaseScore(int value) {
-        score += value;
-        scoreBoard.setText(String.valueOf(score));
-    }
-
     private boolean movesAvailable() {
-        checkingAvailableMoves = true;
-        boolean hasMoves = moveUp() || moveDown() || moveLeft() || moveRight();
-        checkingAvailableMoves = false;
-        return hasMoves;
-    }
-
-    private void addRandomTile() {
-        int row, column;
-        do {
-            row = rand.nextInt(dimension);
-            column = rand.nextInt(dimension);
-        } while (tiles[row][column].getNumber() != 0);
-
-        int number = rand.nextInt(10) == 0 ? 4 : 2;
-        tiles[row][column].setNumber(number);
-
-        showSpawnAnimation(row, column);
-    }
-
-    private void showSpawnAnimation(int row, int column) {
-        StackPane thisPane = (StackPane) gridPane.getChildren().get(row * dimension + column);
-        final Rectangle[] rectangleWrapper = new Rectangle[1];
-        thisPane.getChildren().stream().filter(
-                node -> node instanceof Rectangle
-        ).forEach(node -> rectangleWrapper[0] = (Rectangle) node);
-
-        new AnimationTimer() {
-            private long millisecond = (long) Math.pow(10, 6);
-            private long lastTime = 0;
-            private Rectangle rectangle = rectangleWrapper[0];
-            private double defaultSize = rectangle.getWidth();
-            private double currentSize = defaultSize * 0.7;
-            @Override
-            public void handle(long now) {
-                if (now > lastTime + millisecond) {
-                    if (currentSize >= defaultSize) {
-                        currentSize = defaultSize;
-                        this.stop();
-                        return;
-                    }
-                    currentSize += 2;
-
-                    thisPane.getChildren().stream().filter(node -> node instanceof Rectangle).forEach(node -> {
-                        ((Rectangle) node).setWidth(currentSize);
-                        ((Rectangle) node).setHeight(currentSize);
-                    });
-                }
-            }
-        }.start();
+        if (packed)
+            return BitBoard.canMove(board);
+        return model.canMove();
     }
 
-    private void clearMerged() {
-        for (Tile[] row : tiles) {
-            for (Tile tile : row) {
-                if (tile != null) {
-                    tile.setUnMerged();
-                }
-            }
+    private int addRandomTile() {
+        if (packed) {
+            int index = BitBoard.emptyCell(board, rand.nextInt(BitBoard.emptyCells(board)));
+            board = BitBoard.set(board, index, rand.nextInt(10) == 0 ? 2 : 1);
+            return index;
         }
+        return model.addRandomTile(rand);
     }
 
-    void draw(GridPane gridPane) {
-        this.gridPane = gridPane;
+    private void showSpawnedTile(int index) {
+        int row = index % dimension;
+        int column = index / dimension;
+        view.setNumber(row, column, 1 << exponent(index));
+        view.showSpawnAnimation(row, column);
+    }
 
-        for (int i = 0; i < dimension; i++) {
-            for (int j = 0; j < dimension; j++) {
-                gridPane.add(new StackPane(tiles[i][j].getBox(), tiles[i][j].getLabel()), i, j, 1, 1);
-            }
+    void start() {
+        if (!restored) {
+            showSpawnedTile(addRandomTile());
+            showSpawnedTile(addRandomTile());
         }
-
-        addRandomTile();
-        addRandomTile();
+        pushHistory(null);
+        startedAt = System.currentTimeMillis();
+        engine.start();
     }
 }
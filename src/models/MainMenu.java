@@ -1,7 +1,7 @@
 package models;
 
 import controller.Controller;
-import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
@@ -15,8 +15,19 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import save.Snapshot;
+import scores.ScoreLog;
+import scores.ScoreRecord;
 
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * The menu is built once and shown again after every game; the dimension dialog keeps its last value and has the
+ * {@link BoardViewPool} build the board for the selected dimension while it is open.
+ */
 public class MainMenu {
+    private static final MainMenu MAIN_MENU = new MainMenu();
     private static final CornerRadii DEFAULT_BUTTON_RADIUS = new CornerRadii(60);
     private static final CornerRadii BOX_RADIUS = new CornerRadii(20);
     private static final Color DEFAULT_BUTTON_COLOR = Color.rgb(0, 212, 143, 0.6);
@@ -27,21 +38,111 @@ public class MainMenu {
     private static final Background BOX_BACKGROUND = new Background(
             new BackgroundFill(BOX_BACKGROUND_COLOR, BOX_RADIUS, Insets.EMPTY)
     );
+    private static final Background[] HOVER_FRAMES = makeButtonFrames(0.6, 60, 1, 20);
+    private static final Background[] EXIT_FRAMES = makeButtonFrames(1, 20, 0.6, 60);
     private static final int BUTTON_WIDTH = 300;
     private static final int BUTTON_HEIGHT = 100;
     private static final int BOX_WIDTH = 400;
     private static final int BOX_HEIGHT = 400;
+    private static final int SCORE_BOX_WIDTH = 400;
+    private static final int SCORE_BOX_DIMENSIONS = 4;
+    private static final int MAX_DIMENSION = 1000;
     private Scene scene;
+    private Group root;
+    private Button continueButton;
+    private Label scores;
+
+    private MainMenu() {
+    }
+
+    public static MainMenu getInstance() {
+        return MAIN_MENU;
+    }
 
     public void start() {
-        Group root = new Group();
-        scene = new Scene(root, 1300, 1000);
-        Controller.getInstance().setScene(scene);
+        if (root == null) {
+            root = new Group();
+            Controller.getInstance().setRoot(root);
+            scene = Controller.getInstance().getScene();
+
+            Button newGameButton = makeNewGameButton(root);
+            Button quitButton = makeQuitButton();
+            continueButton = makeContinueButton();
+
+            root.getChildren().addAll(newGameButton, quitButton, makeHighScoreBox(), continueButton);
+        } else {
+            Controller.getInstance().setRoot(root);
+        }
+
+        scene.setOnKeyPressed(null);
+        scene.setCursor(Cursor.DEFAULT);
+        continueButton.setDisable(false);
+        continueButton.setVisible(Controller.getInstance().getSaveStore().exists());
+        updateScores();
+    }
 
-        Button newGameButton = makeNewGameButton(root);
-        Button quitButton = makeQuitButton();
+    private VBox makeHighScoreBox() {
+        Label title = new Label("HIGH SCORES");
+        title.setFont(Font.font("FreeSans", FontWeight.EXTRA_BOLD, 30));
+        title.setTextFill(Color.WHITE);
+        scores = new Label("loading...");
+        scores.setFont(Font.font("FreeSans", FontWeight.LIGHT, 20));
+        scores.setTextFill(Color.WHITE);
+
+        VBox box = new VBox(15, title, scores);
+        box.setPadding(new Insets(20));
+        box.setPrefWidth(SCORE_BOX_WIDTH);
+        box.setBackground(BOX_BACKGROUND);
+        box.relocate(40, 40);
+        return box;
+    }
+
+    private void updateScores() {
+        Controller.getInstance().getScoreLog().whenComplete((log, error) -> {
+            String text = error == null ? describeScores(log) : "unavailable";
+            Platform.runLater(() -> scores.setText(text));
+        });
+    }
+
+    private static String describeScores(ScoreLog log) {
+        int[] dimensions = log.getDimensions();
+        if (dimensions.length == 0) {
+            return "no finished games yet";
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < dimensions.length && i < SCORE_BOX_DIMENSIONS; i++) {
+            int dimension = dimensions[i];
+            text.append(String.format(Locale.ROOT, "%dx%d  (%d games)%n", dimension, dimension, log.getCount(dimension)));
+            text.append(String.format(Locale.ROOT, "  median %d   p90 %d%n",
+                    log.getPercentile(dimension, 50), log.getPercentile(dimension, 90)));
+            int rank = 1;
+            for (ScoreRecord record : log.getTop(dimension, 3)) {
+                text.append(String.format(Locale.ROOT, "  %d. %d  (tile %d)%n",
+                        rank++, record.getScore(), 1 << record.getMaxExponent()));
+            }
+        }
+        return text.toString().trim();
+    }
 
-        root.getChildren().addAll(newGameButton, quitButton);
+    private Button makeContinueButton() {
+        Button continueButton = new Button("Continue");
+        initializeButton(continueButton);
+        continueButton.relocate(
+                (scene.getWidth() - BUTTON_WIDTH) / 2, (scene.getHeight() - 3 * BUTTON_HEIGHT - 150) / 2
+        );
+        setAnimations(continueButton);
+        continueButton.setOnMouseClicked(mouseEvent -> {
+            try {
+                Snapshot snapshot = Controller.getInstance().getSaveStore().load();
+                if (snapshot != null) {
+                    GameHandler.getInstance().start(snapshot);
+                }
+            } catch (IOException e) {
+                continueButton.setDisable(true);
+                System.err.println("cannot load saved game: " + e.getMessage());
+            }
+        });
+        return continueButton;
     }
 
     private Button makeQuitButton() {
@@ -63,18 +164,30 @@ public class MainMenu {
     }
 
     private void setStartGameClick(Group root, Button newGameButton) {
-        newGameButton.setOnMouseClicked(mouseEvent -> {
-            Label label = makeDialogLabel();
-            Spinner<Integer> spinner = makeSpinner();
-            Button startButton = makeDialogButton("Start");
-            Button cancelButton = makeDialogButton("Cancel");
-            VBox box = makeDialogBox(label, spinner, startButton, cancelButton);
+        Label label = makeDialogLabel();
+        Spinner<Integer> spinner = makeSpinner();
+        Button startButton = makeDialogButton("Start");
+        Button cancelButton = makeDialogButton("Cancel");
+        VBox box = makeDialogBox(label, spinner, startButton, cancelButton);
 
-            startButton.setOnMouseClicked(event -> new GameHandler(spinner.getValue()).start());
+        spinner.valueProperty().addListener((observable, oldValue, newValue) -> {
+            if (box.getParent() != null) {
+                BoardViewPool.getInstance().prepare(newValue);
+            }
+        });
+
+        startButton.setOnMouseClicked(event -> {
+            root.getChildren().remove(box);
+            GameHandler.getInstance().start(spinner.getValue());
+        });
 
-            cancelButton.setOnMouseClicked(event -> root.getChildren().remove(box));
+        cancelButton.setOnMouseClicked(event -> root.getChildren().remove(box));
 
-            root.getChildren().add(box);
+        newGameButton.setOnMouseClicked(mouseEvent -> {
+            if (box.getParent() == null) {
+                BoardViewPool.getInstance().prepare(spinner.getValue());
+                root.getChildren().add(box);
+            }
         });
     }
 
@@ -95,8 +208,9 @@ public class MainMenu {
 
     private Spinner<Integer> makeSpinner() {
         Spinner<Integer> spinner = new Spinner<>();
-        SpinnerValueFactory<Integer> valueFactory = new SpinnerValueFactory.IntegerSpinnerValueFactory(3, 30, 4);
+        SpinnerValueFactory<Integer> valueFactory = new SpinnerValueFactory.IntegerSpinnerValueFactory(3, MAX_DIMENSION, 4);
         spinner.setValueFactory(valueFactory);
+        spinner.setEditable(true);
         spinner.getEditor().setFont(Font.font("FreeSans", FontWeight.LIGHT, 30));
         return spinner;
     }
@@ -108,68 +222,30 @@ public class MainMenu {
     }
 
     private void setAnimations(Button button) {
-        AnimationTimer hoverAnimation = new AnimationTimer() {
-            private double currentOpacity = 0.6;
-            private int currentRadius = 60;
-            @Override
-            public void handle(long now) {
-                if (currentOpacity <= 1) {
-                    button.setBackground(
-                            new Background(
-                                    new BackgroundFill(
-                                            Color.rgb(0, 212, 143, currentOpacity),
-                                            new CornerRadii(currentRadius),
-                                            Insets.EMPTY
-                                    )
-                            )
-                    );
-
-                    currentOpacity += 0.05;
-                    currentRadius -= 5;
-                } else {
-                    this.stop();
-                    currentOpacity = 0.6;
-                    currentRadius = 60;
-                }
-            }
-        };
-
         button.setOnMouseEntered(mouseEvent -> {
-            hoverAnimation.start();
+            Animator.getInstance().backgrounds(button, HOVER_FRAMES);
             scene.setCursor(Cursor.HAND);
         });
 
-        AnimationTimer defaultAnimation = new AnimationTimer() {
-            private double currentOpacity = 1;
-            private int currentRadius = 20;
-            @Override
-            public void handle(long now) {
-                if (currentOpacity >= 0.6) {
-                    button.setBackground(
-                            new Background(
-                                    new BackgroundFill(
-                                            Color.rgb(0, 212, 143, currentOpacity),
-                                            new CornerRadii(currentRadius),
-                                            Insets.EMPTY
-                                    )
-                            )
-                    );
-
-                    currentOpacity -= 0.05;
-                    currentRadius += 5;
-                } else {
-                    this.stop();
-                    currentOpacity = 1;
-                    currentRadius = 20;
-                }
-            }
-        };
         button.setOnMouseExited(mouseEvent -> {
-            defaultAnimation.start();
+            Animator.getInstance().backgrounds(button, EXIT_FRAMES);
             scene.setCursor(Cursor.DEFAULT);
         });
     }
 
+    private static Background[] makeButtonFrames(double fromOpacity, int fromRadius, double toOpacity, int toRadius) {
+        int count = (int) Math.round(Math.abs(toOpacity - fromOpacity) / 0.05) + 1;
+        Background[] frames = new Background[count];
+        for (int i = 0; i < count; i++) {
+            double opacity = fromOpacity + (toOpacity - fromOpacity) * i / (count - 1);
+            double radius = fromRadius + (double) (toRadius - fromRadius) * i / (count - 1);
+            frames[i] = new Background(
+                    new BackgroundFill(Color.rgb(0, 212, 143, opacity), new CornerRadii(radius), Insets.EMPTY)
+            );
+        }
+        return frames;
+    }
+
     private void initializeButton(Button newGameButton) {
         newGameButton.setFont(Font.font("FreeSans", FontWeight.EXTRA_BOLD, 45));
         newGameButton.setBackground(DEFAULT_BUTTON_BACKGROUND);
@@ -30,13 +30,12 @@ public class Tile {
     }
 
     private int number;
-    private boolean alreadyMerged;
     private Label label = new Label();
     private Rectangle box;
     private double scale;
 
-    Tile(int number, Grid grid) {
-        this.scale = grid.getScale();
+    Tile(int number, double scale) {
+        this.scale = scale;
         box = new Rectangle(200 * scale, 200 * scale);
         box.setArcWidth(20);
         box.setArcHeight(20);
@@ -57,45 +56,36 @@ public class Tile {
 
     public void setNumber(int number) {
         this.number = number;
-        box.setFill(backgroundColors.getOrDefault(number, OTHER_BACKGROUNDS));
+        box.setFill(backgroundColor(number));
 
         if (number == 0) {
             label.setText("");
         } else {
             label.setText(String.valueOf(number));
-            if (number >= 8) {
-                label.setTextFill(LIGHT_COLOR);
-            } else {
-                label.setTextFill(DARK_COLOR);
-            }
-            double fontSize = 700 * scale / (5 + numberOfDigits(number));
-            label.setFont(Font.font("FreeSans", FontWeight.EXTRA_BOLD, fontSize));
+            label.setTextFill(textColor(number));
+            label.setFont(font(number, scale));
         }
     }
 
-    private int numberOfDigits(int number) {
-        int digits = 0;
-        while (number > 0) {
-            digits++;
-            number /= 10;
-        }
-        return digits;
+    static Color backgroundColor(int number) {
+        return backgroundColors.getOrDefault(number, OTHER_BACKGROUNDS);
     }
 
-    boolean canMergeWith(Tile other) {
-        return !alreadyMerged && other != null && !other.alreadyMerged && number == other.number;
+    static Color textColor(int number) {
+        return number >= 8 ? LIGHT_COLOR : DARK_COLOR;
     }
 
-    int mergeWith(Tile other) {
-        if (canMergeWith(other)) {
-            setNumber(number * 2);
-            alreadyMerged = true;
-            return number;
-        }
-        return -1;
+    static Font font(int number, double scale) {
+        double fontSize = 700 * scale / (5 + numberOfDigits(number));
+        return Font.font("FreeSans", FontWeight.EXTRA_BOLD, fontSize);
     }
 
-    void setUnMerged() {
-        alreadyMerged = false;
+    private static int numberOfDigits(int number) {
+        int digits = 0;
+        while (number > 0) {
+            digits++;
+            number /= 10;
+        }
+        return digits;
     }
 }
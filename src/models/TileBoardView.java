@@ -0,0 +1,142 @@
+package models;
+
+import engine.MoveDelta;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+class TileBoardView implements BoardView {
+    private static final Color BACKGROUND = Color.rgb(188, 171, 156);
+    private static final CornerRadii DEFAULT_CORNER_RADIUS = new CornerRadii(10);
+    private static final double MERGE_SCALE = 1.3;
+    private static final long MERGE_NANOS = 400_000_000L;
+    private static final double SPAWN_SCALE = 0.7;
+    private static final long SPAWN_NANOS = 100_000_000L;
+    private int dimension;
+    private Tile[][] tiles;
+    private GridPane gridPane;
+    private int[] staged;
+    private int[] stagedCells;
+    private int stagedCount;
+
+    TileBoardView(int dimension) {
+        this.dimension = dimension;
+        double scale = 4.0 / dimension;
+        this.tiles = new Tile[dimension][dimension];
+        this.staged = new int[dimension * dimension];
+        this.stagedCells = new int[dimension * dimension];
+        Arrays.fill(staged, -1);
+
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                tiles[i][j] = new Tile(0, scale);
+            }
+        }
+
+        gridPane = new GridPane();
+        gridPane.setBackground(
+                new Background(
+                        new BackgroundFill(
+                                BACKGROUND, DEFAULT_CORNER_RADIUS, new Insets(35.0 / Math.pow(scale, 0.2))
+                        )
+                )
+        );
+        gridPane.relocate(0, 0);
+        gridPane.setMinSize(1000, 1000);
+        gridPane.setVgap(25 * scale);
+        gridPane.setHgap(25 * scale);
+        gridPane.setAlignment(Pos.CENTER);
+
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                gridPane.add(new StackPane(tiles[i][j].getBox(), tiles[i][j].getLabel()), i, j, 1, 1);
+            }
+        }
+    }
+
+    @Override
+    public Node getNode() {
+        return gridPane;
+    }
+
+    @Override
+    public int getNumber(int row, int column) {
+        return tiles[row][column].getNumber();
+    }
+
+    @Override
+    public void setNumber(int row, int column, int number) {
+        tiles[row][column].setNumber(number);
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                Tile tile = tiles[i][j];
+                Animator.getInstance().cancel(tile.getLabel());
+                Animator.getInstance().cancel(tile.getBox());
+                tile.getLabel().setScaleX(1);
+                tile.getLabel().setScaleY(1);
+                tile.getBox().setScaleX(1);
+                tile.getBox().setScaleY(1);
+                if (tile.getNumber() != 0) {
+                    tile.setNumber(0);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void apply(MoveDelta delta) {
+        for (int i = 0; i < delta.getSlideCount(); i++) {
+            stage(delta.getSlideFrom(i), 0);
+            stage(delta.getSlideTo(i), 1 << delta.getSlideExponent(i));
+        }
+        for (int i = 0; i < delta.getMergeCount(); i++) {
+            stage(delta.getMergeCell(i), 1 << delta.getMergeExponent(i));
+        }
+        if (delta.getSpawnCell() >= 0) {
+            stage(delta.getSpawnCell(), 1 << delta.getSpawnExponent());
+        }
+
+        for (int i = 0; i < stagedCount; i++) {
+            int cell = stagedCells[i];
+            Tile tile = tiles[cell % dimension][cell / dimension];
+            if (tile.getNumber() != staged[cell]) {
+                tile.setNumber(staged[cell]);
+            }
+            staged[cell] = -1;
+        }
+        stagedCount = 0;
+
+        for (int i = 0; i < delta.getMergeCount(); i++) {
+            int cell = delta.getMergeCell(i);
+            showMergeAnimation(cell % dimension, cell / dimension);
+        }
+        if (delta.getSpawnCell() >= 0) {
+            showSpawnAnimation(delta.getSpawnCell() % dimension, delta.getSpawnCell() / dimension);
+        }
+    }
+
+    private void stage(int cell, int number) {
+        if (staged[cell] < 0) {
+            stagedCells[stagedCount++] = cell;
+        }
+        staged[cell] = number;
+    }
+
+    @Override
+    public void showMergeAnimation(int row, int column) {
+        Animator.getInstance().scale(tiles[row][column].getLabel(), 1, MERGE_SCALE, MERGE_NANOS, true);
+    }
+
+    @Override
+    public void showSpawnAnimation(int row, int column) {
+        Animator.getInstance().scale(tiles[row][column].getBox(), SPAWN_SCALE, 1, SPAWN_NANOS, false);
+    }
+}
@@ -0,0 +1,351 @@
+package models;
+
+import engine.MoveDelta;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+/**
+ * Board view for boards too big for a node or a rasterized tile per cell, up to 1000x1000. It keeps one exponent
+ * byte per cell and paints only the cells inside a fixed {@value #SIZE}-pixel viewport into one pixel buffer, so
+ * painting costs the same whatever the board size. Scrolling zooms around the pointer, dragging pans, and while
+ * zoomed in a minimap of the whole board, drawn from the largest tile of each block of cells, shows where the
+ * viewport is; clicking or dragging on it moves there. Numbers appear once cells are big enough to read them.
+ * Moves are not animated.
+ */
+class ViewportBoardView implements BoardView, Animator.Ticker {
+    static final int MIN_DIMENSION = 31;
+    private static final int SIZE = 1000;
+    private static final int MINIMAP_SIZE = 200;
+    private static final int MINIMAP_MARGIN = 20;
+    private static final double MAX_CELL_SIZE = 100;
+    private static final double ZOOM_STEP = 1.25;
+    private static final double GAP_CELL_SIZE = 6;
+    private static final double TEXT_CELL_SIZE = 28;
+    private static final long MINIMAP_INTERVAL_NANOS = 100_000_000L;
+    private static final int BACKGROUND = argb(Color.rgb(188, 171, 156));
+    private static final Color MINIMAP_FRAME = Color.rgb(0, 0, 0, 0.8);
+    private static final int[] COLORS = new int[64];
+
+    static {
+        for (int exponent = 0; exponent < COLORS.length; exponent++) {
+            COLORS[exponent] = argb(Tile.backgroundColor(exponent == 0 ? 0 : 1 << exponent));
+        }
+    }
+
+    private final int dimension;
+    private final byte[] cells;
+    private final int[] pixels = new int[SIZE * SIZE];
+    private final int[] spanLeft = new int[SIZE + 1];
+    private final int[] spanRight = new int[SIZE + 1];
+    private final WritableImage image = new WritableImage(SIZE, SIZE);
+    private final int blocks;
+    private final int[] blockOf;
+    private final byte[] summary;
+    private final int[] minimapPixels = new int[MINIMAP_SIZE * MINIMAP_SIZE];
+    private final WritableImage minimap = new WritableImage(MINIMAP_SIZE, MINIMAP_SIZE);
+    private final Font[] fonts = new Font[64];
+    private final Canvas canvas = new Canvas(SIZE, SIZE);
+    private final GraphicsContext graphics = canvas.getGraphicsContext2D();
+    private double cellSize;
+    private double left;
+    private double top;
+    private double dragX;
+    private double dragY;
+    private boolean draggingMinimap;
+    private boolean dirty;
+    private boolean summaryDirty;
+    private long summaryTime;
+
+    ViewportBoardView(int dimension) {
+        this.dimension = dimension;
+        this.cells = new byte[dimension * dimension];
+        this.blocks = Math.min(dimension, MINIMAP_SIZE);
+        this.blockOf = new int[dimension];
+        for (int i = 0; i < dimension; i++) {
+            blockOf[i] = (int) ((long) i * blocks / dimension);
+        }
+        this.summary = new byte[blocks * blocks];
+        this.cellSize = fitSize();
+
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setTextBaseline(VPos.CENTER);
+        canvas.setOnScroll(this::onScroll);
+        canvas.setOnMousePressed(this::onMousePressed);
+        canvas.setOnMouseDragged(this::onMouseDragged);
+    }
+
+    private static int argb(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24 | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8 | (int) Math.round(color.getBlue() * 255);
+    }
+
+    @Override
+    public Node getNode() {
+        return canvas;
+    }
+
+    @Override
+    public int getNumber(int row, int column) {
+        int exponent = cells[column * dimension + row];
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+
+    @Override
+    public void setNumber(int row, int column, int number) {
+        cells[column * dimension + row] = (byte) (number == 0 ? 0 : Integer.numberOfTrailingZeros(number));
+        invalidate(true);
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(cells, (byte) 0);
+        cellSize = fitSize();
+        Arrays.fill(fonts, null);
+        left = offset(0);
+        top = offset(0);
+        invalidate(true);
+    }
+
+    @Override
+    public boolean animatesMoves() {
+        return false;
+    }
+
+    @Override
+    public void show(Frame frame) {
+        frame.copyCells(cells);
+        invalidate(true);
+    }
+
+    @Override
+    public void apply(MoveDelta delta) {
+        for (int i = 0; i < delta.getSlideCount(); i++) {
+            cells[delta.getSlideFrom(i)] = 0;
+            cells[delta.getSlideTo(i)] = (byte) delta.getSlideExponent(i);
+        }
+        for (int i = 0; i < delta.getMergeCount(); i++) {
+            cells[delta.getMergeCell(i)] = (byte) delta.getMergeExponent(i);
+        }
+        if (delta.getSpawnCell() >= 0) {
+            cells[delta.getSpawnCell()] = (byte) delta.getSpawnExponent();
+        }
+        invalidate(true);
+    }
+
+    @Override
+    public void showMergeAnimation(int row, int column) {
+    }
+
+    @Override
+    public void showSpawnAnimation(int row, int column) {
+    }
+
+    private void invalidate(boolean cellsChanged) {
+        summaryDirty |= cellsChanged;
+        if (!dirty) {
+            dirty = true;
+            Animator.getInstance().schedule(this);
+        }
+    }
+
+    @Override
+    public boolean tick(long now) {
+        if (summaryDirty && now - summaryTime >= MINIMAP_INTERVAL_NANOS) {
+            summarize();
+            summaryDirty = false;
+            summaryTime = now;
+            dirty = true;
+        }
+        if (dirty) {
+            dirty = false;
+            paint();
+        }
+        return summaryDirty;
+    }
+
+    private double fitSize() {
+        return (double) SIZE / dimension;
+    }
+
+    private double extent() {
+        return dimension * cellSize;
+    }
+
+    /**
+     * @return {@code offset} kept inside the board, or the offset that centers a board smaller than the viewport
+     */
+    private double offset(double offset) {
+        double extent = extent();
+        if (extent <= SIZE) {
+            return (extent - SIZE) / 2;
+        }
+        return Math.max(0, Math.min(extent - SIZE, offset));
+    }
+
+    private boolean isZoomedIn() {
+        return extent() > SIZE + 0.5;
+    }
+
+    private void onScroll(ScrollEvent event) {
+        if (event.getDeltaY() == 0) {
+            return;
+        }
+        double factor = event.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP;
+        double size = Math.max(fitSize(), Math.min(MAX_CELL_SIZE, cellSize * factor));
+        double boardX = (left + event.getX()) / cellSize;
+        double boardY = (top + event.getY()) / cellSize;
+        cellSize = size;
+        left = offset(boardX * size - event.getX());
+        top = offset(boardY * size - event.getY());
+        Arrays.fill(fonts, null);
+        invalidate(false);
+        event.consume();
+    }
+
+    private void onMousePressed(MouseEvent event) {
+        draggingMinimap = isZoomedIn() && onMinimap(event.getX(), event.getY());
+        if (draggingMinimap) {
+            centerOnMinimap(event.getX(), event.getY());
+        }
+        dragX = event.getX();
+        dragY = event.getY();
+    }
+
+    private void onMouseDragged(MouseEvent event) {
+        if (draggingMinimap) {
+            centerOnMinimap(event.getX(), event.getY());
+        } else {
+            left = offset(left - (event.getX() - dragX));
+            top = offset(top - (event.getY() - dragY));
+            invalidate(false);
+        }
+        dragX = event.getX();
+        dragY = event.getY();
+    }
+
+    private boolean onMinimap(double x, double y) {
+        double minimapX = SIZE - MINIMAP_SIZE - MINIMAP_MARGIN;
+        return x >= minimapX && x < minimapX + MINIMAP_SIZE && y >= MINIMAP_MARGIN && y < MINIMAP_MARGIN + MINIMAP_SIZE;
+    }
+
+    private void centerOnMinimap(double x, double y) {
+        double fractionX = (x - (SIZE - MINIMAP_SIZE - MINIMAP_MARGIN)) / MINIMAP_SIZE;
+        double fractionY = (y - MINIMAP_MARGIN) / MINIMAP_SIZE;
+        left = offset(fractionX * extent() - SIZE / 2.0);
+        top = offset(fractionY * extent() - SIZE / 2.0);
+        invalidate(false);
+    }
+
+    /**
+     * Keeps the largest exponent of every block of cells for the minimap.
+     */
+    private void summarize() {
+        Arrays.fill(summary, (byte) 0);
+        for (int y = 0; y < dimension; y++) {
+            int rowStart = y * dimension;
+            int blockRow = blockOf[y] * blocks;
+            for (int x = 0; x < dimension; x++) {
+                byte exponent = cells[rowStart + x];
+                int block = blockRow + blockOf[x];
+                if (exponent > summary[block]) {
+                    summary[block] = exponent;
+                }
+            }
+        }
+        for (int py = 0; py < MINIMAP_SIZE; py++) {
+            int blockRow = py * blocks / MINIMAP_SIZE * blocks;
+            for (int px = 0; px < MINIMAP_SIZE; px++) {
+                minimapPixels[py * MINIMAP_SIZE + px] = COLORS[summary[blockRow + px * blocks / MINIMAP_SIZE]];
+            }
+        }
+        minimap.getPixelWriter().setPixels(
+                0, 0, MINIMAP_SIZE, MINIMAP_SIZE, PixelFormat.getIntArgbInstance(), minimapPixels, 0, MINIMAP_SIZE
+        );
+    }
+
+    private void paint() {
+        Arrays.fill(pixels, BACKGROUND);
+        int firstX = Math.max(0, (int) Math.floor(left / cellSize));
+        int lastX = Math.min(dimension - 1, (int) Math.floor((left + SIZE - 1) / cellSize));
+        int firstY = Math.max(0, (int) Math.floor(top / cellSize));
+        int lastY = Math.min(dimension - 1, (int) Math.floor((top + SIZE - 1) / cellSize));
+        double gap = cellSize >= GAP_CELL_SIZE ? Math.max(1, cellSize / 10) : 0;
+        for (int x = firstX; x <= lastX; x++) {
+            spanLeft[x - firstX] = pixel(x * cellSize - left);
+            spanRight[x - firstX] = pixel((x + 1) * cellSize - gap - left);
+        }
+
+        for (int y = firstY; y <= lastY; y++) {
+            int pixelTop = pixel(y * cellSize - top);
+            int pixelBottom = pixel((y + 1) * cellSize - gap - top);
+            if (pixelBottom <= pixelTop) {
+                continue;
+            }
+            int rowOffset = pixelTop * SIZE;
+            int rowStart = y * dimension;
+            for (int x = firstX; x <= lastX; x++) {
+                int color = COLORS[cells[rowStart + x]];
+                for (int p = rowOffset + spanLeft[x - firstX], end = rowOffset + spanRight[x - firstX]; p < end; p++) {
+                    pixels[p] = color;
+                }
+            }
+            for (int py = pixelTop + 1; py < pixelBottom; py++) {
+                System.arraycopy(pixels, rowOffset, pixels, py * SIZE, SIZE);
+            }
+        }
+        image.getPixelWriter().setPixels(0, 0, SIZE, SIZE, PixelFormat.getIntArgbInstance(), pixels, 0, SIZE);
+        graphics.drawImage(image, 0, 0);
+
+        if (cellSize >= TEXT_CELL_SIZE) {
+            paintNumbers(firstX, lastX, firstY, lastY, gap);
+        }
+        if (isZoomedIn()) {
+            paintMinimap();
+        }
+    }
+
+    private int pixel(double position) {
+        return (int) Math.max(0, Math.min(SIZE, Math.round(position)));
+    }
+
+    private void paintNumbers(int firstX, int lastX, int firstY, int lastY, double gap) {
+        double half = (cellSize - gap) / 2;
+        for (int y = firstY; y <= lastY; y++) {
+            for (int x = firstX; x <= lastX; x++) {
+                int exponent = cells[y * dimension + x];
+                if (exponent == 0) {
+                    continue;
+                }
+                int number = 1 << exponent;
+                if (fonts[exponent] == null) {
+                    fonts[exponent] = Tile.font(number, cellSize / 200);
+                }
+                graphics.setFont(fonts[exponent]);
+                graphics.setFill(Tile.textColor(number));
+                graphics.fillText(String.valueOf(number), x * cellSize - left + half, y * cellSize - top + half);
+            }
+        }
+    }
+
+    private void paintMinimap() {
+        double x = SIZE - MINIMAP_SIZE - MINIMAP_MARGIN;
+        double y = MINIMAP_MARGIN;
+        double scale = MINIMAP_SIZE / extent();
+        graphics.drawImage(minimap, x, y);
+        graphics.setStroke(MINIMAP_FRAME);
+        graphics.setLineWidth(2);
+        graphics.strokeRect(x, y, MINIMAP_SIZE, MINIMAP_SIZE);
+        graphics.strokeRect(x + left * scale, y + top * scale, SIZE * scale, SIZE * scale);
+    }
+}
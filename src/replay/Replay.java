@@ -0,0 +1,129 @@
+package replay;
+
+import engine.Board;
+import engine.Direction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * One game as its dimension, spawn seed and the moves that changed the board, packed four to a byte.
+ * The game starts with two spawns and every move is followed by one, all drawn from {@code new Random(seed)}
+ * through {@link Board#addRandomTile(Random)}; {@link #play()} repeats them to rebuild the game exactly.
+ */
+public class Replay {
+    static final int MAGIC = 0x32303438;
+    static final int VERSION = 1;
+
+    private final int dimension;
+    private final long seed;
+    private byte[] moves;
+    private int moveCount;
+
+    public Replay(int dimension, long seed) {
+        this(dimension, seed, new byte[64], 0);
+    }
+
+    private Replay(int dimension, long seed, byte[] moves, int moveCount) {
+        this.dimension = dimension;
+        this.seed = seed;
+        this.moves = moves;
+        this.moveCount = moveCount;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public Direction getMove(int i) {
+        return Direction.of((moves[i >>> 2] >>> ((i & 3) << 1)) & 3);
+    }
+
+    public void add(Direction direction) {
+        int index = moveCount >>> 2;
+        if (index == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(16, moves.length * 2));
+        }
+        moves[index] |= direction.ordinal() << ((moveCount & 3) << 1);
+        moveCount++;
+    }
+
+    /**
+     * Drops every move after the first {@code moveCount}.
+     */
+    public void truncate(int moveCount) {
+        if (moveCount >= this.moveCount) {
+            return;
+        }
+        int keep = moveCount >>> 2;
+        if ((moveCount & 3) != 0) {
+            moves[keep] &= (1 << ((moveCount & 3) << 1)) - 1;
+            keep++;
+        }
+        Arrays.fill(moves, keep, packedLength(), (byte) 0);
+        this.moveCount = moveCount;
+    }
+
+    public Replay copy() {
+        return new Replay(dimension, seed, Arrays.copyOf(moves, packedLength()), moveCount);
+    }
+
+    private int packedLength() {
+        return (moveCount + 3) >>> 2;
+    }
+
+    /**
+     * Replays the whole game.
+     *
+     * @throws IllegalStateException if a recorded move does not change the board
+     */
+    public Board play() {
+        Board board = new Board(dimension);
+        Random random = new Random(seed);
+        board.addRandomTile(random);
+        board.addRandomTile(random);
+        for (int i = 0; i < moveCount; i++) {
+            if (!board.move(getMove(i))) {
+                throw new IllegalStateException("move " + i + " of the replay does not change the board");
+            }
+            board.addRandomTile(random);
+        }
+        return board;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(dimension);
+        out.writeLong(seed);
+        out.writeInt(moveCount);
+        out.write(moves, 0, packedLength());
+    }
+
+    public static Replay read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a replay record");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported replay version " + version);
+        }
+        int dimension = in.readUnsignedShort();
+        long seed = in.readLong();
+        int moveCount = in.readInt();
+        byte[] moves = new byte[(moveCount + 3) >>> 2];
+        in.readFully(moves);
+        return new Replay(dimension, seed, moves, moveCount);
+    }
+}
@@ -0,0 +1,37 @@
+package replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class ReplayReader implements AutoCloseable {
+    private final DataInputStream in;
+
+    public ReplayReader(Path file) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file.toFile()), 1 << 16));
+    }
+
+    /**
+     * @return the next replay, or {@code null} at the end of the file
+     */
+    public Replay next() throws IOException {
+        in.mark(1);
+        if (in.read() < 0) {
+            return null;
+        }
+        in.reset();
+        try {
+            return Replay.read(in);
+        } catch (EOFException e) {
+            throw new IOException("replay file ends inside a record", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
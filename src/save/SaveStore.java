@@ -0,0 +1,120 @@
+package save;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps one saved game on disk. Saves and deletes run on a background thread; requests that queue up behind a
+ * slow write collapse into the newest one, and each write replaces the file atomically.
+ */
+public class SaveStore implements AutoCloseable {
+    /**
+     * Queued in place of a snapshot to delete the file, so a delete and a save can never run out of order.
+     */
+    private static final Snapshot DELETE = new Snapshot(0, new byte[0], 0, 0, null);
+
+    private final Path file;
+    private final Path temporary;
+    private final AtomicReference<Snapshot> pending = new AtomicReference<>();
+    private volatile Snapshot latest;
+    private volatile boolean deleted;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "save-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SaveStore(Path file) {
+        this.file = file.toAbsolutePath();
+        this.temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+    }
+
+    public boolean exists() {
+        if (latest != null) {
+            return true;
+        }
+        return !deleted && Files.isRegularFile(file);
+    }
+
+    public void saveAsync(Snapshot snapshot) {
+        latest = snapshot;
+        deleted = false;
+        submit(snapshot);
+    }
+
+    public void deleteAsync() {
+        latest = null;
+        deleted = true;
+        submit(DELETE);
+    }
+
+    private void submit(Snapshot request) {
+        if (pending.getAndSet(request) == null) {
+            executor.execute(this::writePending);
+        }
+    }
+
+    /**
+     * @return the saved game, or {@code null} if there is none
+     */
+    public Snapshot load() throws IOException {
+        Snapshot snapshot = latest;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (deleted || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return Snapshot.read(in);
+        }
+    }
+
+    private void writePending() {
+        Snapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        if (snapshot == DELETE) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("cannot delete saved game " + file + ": " + e.getMessage());
+            }
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                snapshot.write(out);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("cannot save game to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for queued saves and deletes to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package save;
+
+import replay.Replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A game in progress: its exponents in row-major order, score, spawn generator state and the replay so far.
+ * Exponents are stored four bits per cell when every tile is at most 32768, a byte per cell otherwise.
+ */
+public class Snapshot {
+    private static final int MAGIC = 0x32303453;
+    private static final int VERSION = 1;
+
+    private final int dimension;
+    private final byte[] cells;
+    private final int score;
+    private final long randomState;
+    private final Replay replay;
+
+    public Snapshot(int dimension, byte[] cells, int score, long randomState, Replay replay) {
+        if (cells.length != dimension * dimension) {
+            throw new IllegalArgumentException("expected " + dimension * dimension + " cells, got " + cells.length);
+        }
+        this.dimension = dimension;
+        this.cells = cells;
+        this.score = score;
+        this.randomState = randomState;
+        this.replay = replay;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getExponent(int index) {
+        return cells[index];
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getRandomState() {
+        return randomState;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        boolean nibbles = true;
+        for (byte cell : cells) {
+            nibbles &= cell < 16;
+        }
+
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(dimension);
+        out.writeInt(score);
+        out.writeLong(randomState);
+        out.writeBoolean(nibbles);
+        if (nibbles) {
+            for (int i = 0; i < cells.length; i += 2) {
+                int high = i + 1 < cells.length ? cells[i + 1] : 0;
+                out.writeByte(cells[i] | high << 4);
+            }
+        } else {
+            out.write(cells);
+        }
+        replay.write(out);
+    }
+
+    public static Snapshot read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a saved game");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported saved game version " + version);
+        }
+        int dimension = in.readUnsignedShort();
+        int score = in.readInt();
+        long randomState = in.readLong();
+        boolean nibbles = in.readBoolean();
+
+        byte[] cells = new byte[dimension * dimension];
+        if (nibbles) {
+            for (int i = 0; i < cells.length; i += 2) {
+                int packed = in.readUnsignedByte();
+                cells[i] = (byte) (packed & 0xF);
+                if (i + 1 < cells.length) {
+                    cells[i + 1] = (byte) (packed >>> 4);
+                }
+            }
+        } else {
+            in.readFully(cells);
+        }
+        return new Snapshot(dimension, cells, score, randomState, Replay.read(in));
+    }
+}
@@ -0,0 +1,168 @@
+package scores;
+
+import metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Every finished game, appended as a fixed {@value #RECORD_SIZE}-byte record to a memory-mapped file that grows by
+ * doubling. Opening the log scans it once to rebuild the in-memory indexes: the best {@value #TOP_CAPACITY} games
+ * and a score histogram bucketed like a {@link LatencyHistogram} (percentiles within 1/16) per dimension. A record counts once its timestamp is
+ * written, which happens last, so a game cut off mid-write is ignored. Thread-safe.
+ */
+public class ScoreLog implements AutoCloseable {
+    public static final int TOP_CAPACITY = 100;
+    private static final int MAGIC = 0x32303448;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 24;
+    private static final long INITIAL_SIZE = HEADER_SIZE + RECORD_SIZE * 4096L;
+    private static final int BUCKETS = LatencyHistogram.bucket(Integer.MAX_VALUE) + 1;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long count;
+    private final TreeMap<Integer, Index> indexes = new TreeMap<>();
+
+    private static final class Index {
+        private final PriorityQueue<ScoreRecord> top = new PriorityQueue<>(
+                TOP_CAPACITY + 1, (a, b) -> Integer.compare(a.getScore(), b.getScore())
+        );
+        private final long[] histogram = new long[BUCKETS];
+        private long games;
+    }
+
+    public ScoreLog(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        map(Math.max(channel.size(), INITIAL_SIZE));
+
+        if (created) {
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, RECORD_SIZE);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+            channel.close();
+            throw new IOException("not a score log: " + file);
+        }
+        scan();
+    }
+
+    private void map(long size) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void scan() {
+        long capacity = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        while (count < capacity) {
+            int offset = (int) (HEADER_SIZE + count * RECORD_SIZE);
+            long finishedAt = buffer.getLong(offset);
+            if (finishedAt == 0) {
+                break;
+            }
+            index(finishedAt, buffer.getShort(offset + 20), buffer.getInt(offset + 8), buffer.get(offset + 22),
+                    buffer.getInt(offset + 12), buffer.getInt(offset + 16));
+            count++;
+        }
+    }
+
+    private void index(long finishedAt, int dimension, int score, int maxExponent, int moves, int durationMillis) {
+        Index index = indexes.computeIfAbsent(dimension, key -> new Index());
+        index.games++;
+        index.histogram[LatencyHistogram.bucket(score)]++;
+        if (index.top.size() < TOP_CAPACITY || score > index.top.peek().getScore()) {
+            index.top.add(new ScoreRecord(finishedAt, dimension, score, maxExponent, moves, durationMillis));
+            if (index.top.size() > TOP_CAPACITY) {
+                index.top.poll();
+            }
+        }
+    }
+
+    public synchronized void append(ScoreRecord record) throws IOException {
+        long end = HEADER_SIZE + (count + 1) * RECORD_SIZE;
+        if (end > buffer.capacity()) {
+            if (buffer.capacity() * 2L > Integer.MAX_VALUE) {
+                throw new IOException("score log is full");
+            }
+            buffer.force();
+            map(buffer.capacity() * 2L);
+        }
+
+        int offset = (int) (HEADER_SIZE + count * RECORD_SIZE);
+        buffer.putInt(offset + 8, record.getScore());
+        buffer.putInt(offset + 12, record.getMoves());
+        buffer.putInt(offset + 16, record.getDurationMillis());
+        buffer.putShort(offset + 20, (short) record.getDimension());
+        buffer.put(offset + 22, (byte) record.getMaxExponent());
+        buffer.putLong(offset, Math.max(1, record.getFinishedAt()));
+        count++;
+        index(record.getFinishedAt(), record.getDimension(), record.getScore(), record.getMaxExponent(),
+                record.getMoves(), record.getDurationMillis());
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getCount(int dimension) {
+        Index index = indexes.get(dimension);
+        return index == null ? 0 : index.games;
+    }
+
+    /**
+     * @return the dimensions that have finished games, smallest first
+     */
+    public synchronized int[] getDimensions() {
+        int[] dimensions = new int[indexes.size()];
+        int i = 0;
+        for (int dimension : indexes.keySet()) {
+            dimensions[i++] = dimension;
+        }
+        return dimensions;
+    }
+
+    /**
+     * @return up to {@code limit} (at most {@value #TOP_CAPACITY}) best games on {@code dimension}, best first
+     */
+    public synchronized List<ScoreRecord> getTop(int dimension, int limit) {
+        Index index = indexes.get(dimension);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        ScoreRecord[] records = index.top.toArray(new ScoreRecord[0]);
+        Arrays.sort(records, (a, b) -> Integer.compare(b.getScore(), a.getScore()));
+        return new ArrayList<>(Arrays.asList(records).subList(0, Math.min(limit, records.length)));
+    }
+
+    /**
+     * @return a score that {@code percentile} percent of the games on {@code dimension} did not exceed, rounded
+     * down to the histogram bucket; 0 if there are none
+     */
+    public synchronized int getPercentile(int dimension, double percentile) {
+        Index index = indexes.get(dimension);
+        if (index == null) {
+            return 0;
+        }
+        return (int) LatencyHistogram.percentile(index.histogram, Math.min(100, Math.max(0, percentile)));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,49 @@
+package scores;
+
+/**
+ * One finished game as kept in a {@link ScoreLog}.
+ */
+public final class ScoreRecord {
+    private final long finishedAt;
+    private final int dimension;
+    private final int score;
+    private final int maxExponent;
+    private final int moves;
+    private final int durationMillis;
+
+    public ScoreRecord(long finishedAt, int dimension, int score, int maxExponent, int moves, int durationMillis) {
+        this.finishedAt = finishedAt;
+        this.dimension = dimension;
+        this.score = score;
+        this.maxExponent = maxExponent;
+        this.moves = moves;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return epoch milliseconds
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMaxExponent() {
+        return maxExponent;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public int getDurationMillis() {
+        return durationMillis;
+    }
+}
@@ -0,0 +1,267 @@
+package server;
+
+import engine.Direction;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hosts games for other processes over a line protocol on one selector thread. Each request is one line of ASCII
+ * words and gets exactly one response line, in order:
+ * <pre>
+ * NEW dimension [seed]   OK id
+ * MOVE id UP|DOWN|LEFT|RIGHT   OK moved score over
+ * STATE id               OK dimension score moves over exponent...
+ * CLOSE id               OK
+ * QUIT                   (connection closes)
+ * </pre>
+ * Flags are 0 or 1, exponents are row-major with 0 for an empty cell, and a bad request gets {@code ERR reason}.
+ * Session ids belong to the connection that created them; closing the connection ends its games.
+ */
+public class GameServer implements AutoCloseable {
+    /**
+     * Largest board a client may open: 63x63 stays under {@link engine.Board}'s default threshold of 4096 cells,
+     * so every move runs on the selector thread instead of the shared fork-join pool.
+     */
+    public static final int MAX_DIMENSION = 63;
+    private static final int MAX_LINE = 256;
+    private static final int MAX_PENDING_OUTPUT = 1 << 20;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private long nextSeed = System.nanoTime();
+    private volatile boolean running = true;
+
+    public GameServer(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    /**
+     * Serves clients on the calling thread until {@link #close()}.
+     */
+    public void run() throws IOException {
+        while (running) {
+            selector.select();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                try {
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable())
+                        accept();
+                    if (key.isValid() && key.isReadable())
+                        ((Connection) key.attachment()).read(key);
+                    if (key.isValid() && key.isWritable())
+                        ((Connection) key.attachment()).flush(key);
+                } catch (IOException e) {
+                    disconnect(key);
+                }
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection)
+                disconnect(key);
+        }
+        server.close();
+        selector.close();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+        }
+    }
+
+    private static void disconnect(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        private ByteBuffer out = ByteBuffer.allocate(4096);
+        private final StringBuilder response = new StringBuilder();
+        private final Map<Integer, Session> sessions = new HashMap<>();
+        private int nextId = 1;
+        private boolean closing;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void read(SelectionKey key) throws IOException {
+            if (channel.read(in) < 0) {
+                disconnect(key);
+                return;
+            }
+
+            in.flip();
+            int start = 0;
+            for (int i = 0; i < in.limit() && !closing; i++) {
+                if (in.get(i) == '\n') {
+                    handle(new String(in.array(), start, i - start, StandardCharsets.US_ASCII).trim());
+                    start = i + 1;
+                }
+            }
+            in.position(start);
+            in.compact();
+            if (!in.hasRemaining() && !closing) {
+                respond(response.append("ERR line too long"));
+                closing = true;
+            }
+            flush(key);
+        }
+
+        private void flush(SelectionKey key) throws IOException {
+            if (out.position() > 0) {
+                out.flip();
+                channel.write(out);
+                out.compact();
+            }
+            if (out.position() == 0 && closing) {
+                disconnect(key);
+                return;
+            }
+            int ops = out.position() > 0 ? SelectionKey.OP_WRITE : 0;
+            if (out.position() < MAX_PENDING_OUTPUT && !closing)
+                ops |= SelectionKey.OP_READ;
+            key.interestOps(ops);
+        }
+
+        private void handle(String line) {
+            if (line.isEmpty())
+                return;
+            String[] words = line.split(" +");
+            try {
+                switch (words[0].toUpperCase(Locale.ROOT)) {
+                    case "NEW":
+                        newGame(words);
+                        break;
+                    case "MOVE":
+                        move(words);
+                        break;
+                    case "STATE":
+                        state(words);
+                        break;
+                    case "CLOSE":
+                        if (sessions.remove(id(words)) == null)
+                            throw new IllegalArgumentException("no such game");
+                        response.append("OK");
+                        break;
+                    case "QUIT":
+                        closing = true;
+                        return;
+                    default:
+                        throw new IllegalArgumentException("unknown command");
+                }
+            } catch (IllegalArgumentException e) {
+                response.setLength(0);
+                response.append("ERR ").append(e.getMessage());
+            }
+            respond(response);
+        }
+
+        private void newGame(String[] words) {
+            if (words.length < 2 || words.length > 3)
+                throw new IllegalArgumentException("usage: NEW dimension [seed]");
+            int dimension = Integer.parseInt(words[1]);
+            if (dimension < 2 || dimension > MAX_DIMENSION)
+                throw new IllegalArgumentException("dimension out of range");
+            long seed = words.length == 3 ? Long.parseLong(words[2]) : nextSeed++;
+            int id = nextId++;
+            sessions.put(id, new Session(dimension, seed));
+            response.append("OK ").append(id);
+        }
+
+        private void move(String[] words) {
+            if (words.length != 3)
+                throw new IllegalArgumentException("usage: MOVE id direction");
+            Session session = session(words);
+            Direction direction;
+            try {
+                direction = Direction.valueOf(words[2].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown direction");
+            }
+            boolean moved = session.move(direction);
+            response.append("OK ").append(moved ? 1 : 0)
+                    .append(' ').append(session.getScore())
+                    .append(' ').append(session.isOver() ? 1 : 0);
+        }
+
+        private void state(String[] words) {
+            if (words.length != 2)
+                throw new IllegalArgumentException("usage: STATE id");
+            Session session = session(words);
+            response.append("OK ").append(session.getDimension())
+                    .append(' ').append(session.getScore())
+                    .append(' ').append(session.getMoveCount())
+                    .append(' ').append(session.isOver() ? 1 : 0);
+            int cells = session.getDimension() * session.getDimension();
+            for (int index = 0; index < cells; index++) {
+                response.append(' ').append(session.getExponent(index));
+            }
+        }
+
+        private Session session(String[] words) {
+            Session session = sessions.get(id(words));
+            if (session == null)
+                throw new IllegalArgumentException("no such game");
+            return session;
+        }
+
+        private int id(String[] words) {
+            if (words.length < 2)
+                throw new IllegalArgumentException("missing game id");
+            return Integer.parseInt(words[1]);
+        }
+
+        private void respond(StringBuilder line) {
+            line.append('\n');
+            int length = line.length();
+            if (out.remaining() < length) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + length));
+                out.flip();
+                grown.put(out);
+                out = grown;
+            }
+            for (int i = 0; i < length; i++) {
+                out.put((byte) line.charAt(i));
+            }
+            line.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package server;
+
+import engine.BitBoard;
+import engine.Board;
+import engine.Direction;
+import engine.GameRandom;
+
+/**
+ * One game hosted by the server, under the same rules as the game window: 4x4 boards are kept packed in a
+ * {@code long}, other sizes in a {@link Board}, and tiles spawn from a {@link GameRandom} seeded like a replay, so a
+ * session and a window game with the same seed and moves end on the same board. Like a window game, a packed board
+ * moves to a {@link Board} once it holds a 32768 tile, so two of them still merge.
+ */
+final class Session {
+    private final int dimension;
+    private final GameRandom random;
+    private Board model;
+    private long board;
+    private int score;
+    private int moveCount;
+    private boolean over;
+
+    Session(int dimension, long seed) {
+        this.dimension = dimension;
+        this.random = new GameRandom(seed);
+        this.model = dimension == BitBoard.DIMENSION ? null : new Board(dimension);
+        addRandomTile();
+        addRandomTile();
+    }
+
+    /**
+     * @return whether the move changed the board
+     */
+    boolean move(Direction direction) {
+        if (over) {
+            return false;
+        }
+
+        if (model == null) {
+            long before = board;
+            board = BitBoard.move(before, direction);
+            if (board == before) {
+                return false;
+            }
+            score += BitBoard.moveScore(before, direction);
+        } else {
+            if (!model.move(direction)) {
+                return false;
+            }
+            score = model.getScore();
+        }
+
+        moveCount++;
+        addRandomTile();
+        if (model == null && BitBoard.maxExponent(board) == BitBoard.MAX_EXPONENT) {
+            unpack();
+        }
+        over = model == null ? !BitBoard.canMove(board) : !model.canMove();
+        return true;
+    }
+
+    private void unpack() {
+        model = new Board(dimension);
+        for (int index = 0; index < model.size(); index++) {
+            model.set(index, BitBoard.get(board, index));
+        }
+        model.setScore(score);
+    }
+
+    private void addRandomTile() {
+        if (model == null) {
+            int index = BitBoard.emptyCell(board, random.nextInt(BitBoard.emptyCells(board)));
+            board = BitBoard.set(board, index, random.nextInt(10) == 0 ? 2 : 1);
+        } else {
+            model.addRandomTile(random);
+        }
+    }
+
+    int getDimension() {
+        return dimension;
+    }
+
+    int getExponent(int index) {
+        return model == null ? BitBoard.get(board, index) : model.get(index);
+    }
+
+    int getScore() {
+        return score;
+    }
+
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    boolean isOver() {
+        return over;
+    }
+}
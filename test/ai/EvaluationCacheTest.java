@@ -0,0 +1,113 @@
+package ai;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EvaluationCacheTest {
+    private static final int THREADS = 4;
+    private static final int OPERATIONS = 200_000;
+
+    @Test
+    public void tornSlotReadsAsAMiss() throws ReflectiveOperationException {
+        EvaluationCache cache = new EvaluationCache(4);
+        cache.put(4, 1.5);
+        cache.put(8, 2.5);
+        long[] values = array(cache, "values");
+        // slot 0 keeps the check written for key 4 but gets the value written for key 8 in slot 1
+        values[0] = values[1];
+
+        assertTrue(Double.isNaN(cache.get(4)));
+        assertEquals(2.5, cache.get(8), 0);
+    }
+
+    @Test
+    public void otherKeyInTheSameSlotReadsAsAMiss() {
+        EvaluationCache cache = new EvaluationCache(4);
+        cache.put(4, 1.5);
+        assertTrue(Double.isNaN(cache.get(8)));
+        assertTrue(Double.isNaN(cache.get(4 ^ Double.doubleToRawLongBits(1.5))));
+        assertEquals(1.5, cache.get(4), 0);
+    }
+
+    /**
+     * Every thread stores values derived from their keys into a small cache, so slots are overwritten all the
+     * time; a hit must always return its own key's value.
+     */
+    @Test
+    public void racingWritersNeverReturnAnotherKeysValue() throws InterruptedException {
+        EvaluationCache cache = new EvaluationCache(64);
+        AtomicInteger wrong = new AtomicInteger();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < threads.length; t++) {
+            Random random = new Random(t);
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    long key = 1 + random.nextInt(256);
+                    double value = cache.get(key);
+                    if (Double.isNaN(value))
+                        cache.put(key, valueOf(key));
+                    else if (value != valueOf(key))
+                        wrong.incrementAndGet();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrong.get());
+        assertTrue(cache.getHits() > 0);
+    }
+
+    @Test
+    public void readEntriesGetASecondChance() {
+        EvaluationCache cache = new EvaluationCache(4);
+        for (long key = 4; key <= 16; key += 4) {
+            cache.put(key, key);
+        }
+        cache.get(4);
+        cache.get(8);
+
+        // 4 and 8 were read, so the sweep spares them and evicts 12; then 4 has used its second chance
+        cache.put(20, 20);
+        cache.put(24, 24);
+
+        assertTrue(Double.isNaN(cache.get(12)));
+        assertTrue(Double.isNaN(cache.get(4)));
+        assertEquals(8, cache.get(8), 0);
+        assertEquals(16, cache.get(16), 0);
+        assertEquals(20, cache.get(20), 0);
+        assertEquals(24, cache.get(24), 0);
+    }
+
+    @Test
+    public void keysSeparateDepthsAndDimensions() {
+        EvaluationCache cache = new EvaluationCache(1 << 10);
+        long hash = 0x1234_5678_9ABCL;
+        cache.put(EvaluationCache.key(hash, 4, 2), 2);
+        cache.put(EvaluationCache.key(hash, 4, 3), 3);
+
+        assertEquals(2, cache.get(EvaluationCache.key(hash, 4, 2)), 0);
+        assertEquals(3, cache.get(EvaluationCache.key(hash, 4, 3)), 0);
+        assertTrue(Double.isNaN(cache.get(EvaluationCache.key(hash, 4, 1))));
+        assertTrue(Double.isNaN(cache.get(EvaluationCache.key(hash, 5, 2))));
+        assertNotEquals(0, EvaluationCache.key(0, 0, 0));
+    }
+
+    private static double valueOf(long key) {
+        return key * 0.5 + 1;
+    }
+
+    private static long[] array(EvaluationCache cache, String name) throws ReflectiveOperationException {
+        Field field = EvaluationCache.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return (long[]) field.get(cache);
+    }
+}
@@ -0,0 +1,119 @@
+package ai;
+
+import engine.Board;
+import engine.Direction;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExpectimaxPlayerTest {
+    private static final int POSITIONS = 20;
+    private static final int DEPTH = 2;
+
+    /**
+     * At depth 2 no chance node falls under the probability cutoff, so the search must pick the move a plain
+     * expectimax picks, whatever the number of threads sharing the cache.
+     */
+    @Test
+    public void picksTheExpectimaxMoveOnOneAndManyThreads() {
+        Heuristic heuristic = new DefaultHeuristic();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            Random random = new Random(3);
+            for (int i = 0; i < POSITIONS; i++) {
+                Board board = position(random);
+                Direction expected = bestMove(board, heuristic);
+                ExpectimaxPlayer alone = new ExpectimaxPlayer(heuristic, DEPTH, 0, single);
+                ExpectimaxPlayer shared = new ExpectimaxPlayer(heuristic, DEPTH, 0, several);
+                assertEquals("position " + i, expected, alone.chooseMove(board));
+                assertEquals("position " + i, expected, shared.chooseMove(board));
+                assertEquals("position " + i, expected, shared.chooseMove(board));
+            }
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void fixedPositionHasAFixedMove() {
+        Board board = new Board(4);
+        int[] exponents = {
+                1, 2, 3, 4,
+                0, 1, 2, 5,
+                0, 0, 1, 6,
+                0, 0, 0, 7,
+        };
+        for (int i = 0; i < exponents.length; i++) {
+            board.set(i, exponents[i]);
+        }
+        Heuristic heuristic = new DefaultHeuristic();
+        Direction expected = bestMove(board, heuristic);
+        for (int threads = 1; threads <= 4; threads++) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                assertEquals(threads + " threads", expected,
+                        new ExpectimaxPlayer(heuristic, DEPTH, 0, pool).chooseMove(board));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static Board position(Random random) {
+        Board board = new Board(4);
+        for (int i = 0; i < board.size(); i++) {
+            if (random.nextInt(3) != 0) {
+                board.set(i, 1 + random.nextInt(6));
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Depth-2 expectimax without cache or cutoff: each move, then every spawn, then the best reply.
+     */
+    private static Direction bestMove(Board board, Heuristic heuristic) {
+        Direction best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Direction direction : Direction.values()) {
+            Board moved = board.copy();
+            if (!moved.move(direction)) {
+                continue;
+            }
+            double sum = 0;
+            int empty = moved.emptyCount();
+            for (int i = 0; i < moved.size(); i++) {
+                if (moved.get(i) != 0) {
+                    continue;
+                }
+                moved.set(i, 1);
+                sum += 0.9 * bestReply(moved, heuristic);
+                moved.set(i, 2);
+                sum += 0.1 * bestReply(moved, heuristic);
+                moved.set(i, 0);
+            }
+            double value = empty == 0 ? heuristic.evaluate(moved) : sum / empty;
+            if (value > bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        return best;
+    }
+
+    private static double bestReply(Board board, Heuristic heuristic) {
+        double best = -1_000_000;
+        for (Direction direction : Direction.values()) {
+            Board next = board.copy();
+            if (next.move(direction)) {
+                best = Math.max(best, heuristic.evaluate(next));
+            }
+        }
+        return best;
+    }
+}
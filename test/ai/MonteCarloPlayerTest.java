@@ -0,0 +1,71 @@
+package ai;
+
+import engine.Board;
+import engine.Direction;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MonteCarloPlayerTest {
+    private static final int TRIALS = 40_000;
+
+    /**
+     * Full columns that cannot merge block up and down; trying a random first direction and then the next ones in
+     * order would pick left three times as often as right here.
+     */
+    @Test
+    public void picksUniformlyAmongTwoLegalDirections() {
+        Board board = board(3,
+                1, 0, 2,
+                3, 0, 4,
+                5, 0, 6);
+        int[] counts = count(board);
+        assertEquals(0, counts[Direction.UP.ordinal()]);
+        assertEquals(0, counts[Direction.DOWN.ordinal()]);
+        assertEquals(0.5, counts[Direction.LEFT.ordinal()] / (double) TRIALS, 0.02);
+        assertEquals(0.5, counts[Direction.RIGHT.ordinal()] / (double) TRIALS, 0.02);
+    }
+
+    @Test
+    public void picksUniformlyAmongThreeLegalDirections() {
+        Board board = board(3,
+                0, 0, 0,
+                0, 1, 0,
+                2, 3, 4);
+        int[] counts = count(board);
+        assertEquals(0, counts[Direction.DOWN.ordinal()]);
+        for (Direction direction : new Direction[]{Direction.UP, Direction.LEFT, Direction.RIGHT}) {
+            assertEquals(direction.name(), 1 / 3.0, counts[direction.ordinal()] / (double) TRIALS, 0.02);
+        }
+    }
+
+    @Test
+    public void stuckBoardHasNoMove() {
+        Board board = board(2,
+                1, 2,
+                2, 1);
+        assertNull(MonteCarloPlayer.moveRandomly(board, new Random(0)));
+    }
+
+    private static int[] count(Board board) {
+        Random random = new Random(4);
+        int[] counts = new int[4];
+        Board copy = board.copy();
+        for (int i = 0; i < TRIALS; i++) {
+            copy.copyFrom(board);
+            counts[MonteCarloPlayer.moveRandomly(copy, random).ordinal()]++;
+        }
+        return counts;
+    }
+
+    private static Board board(int dimension, int... exponents) {
+        Board board = new Board(dimension);
+        for (int i = 0; i < exponents.length; i++) {
+            board.set(i, exponents[i]);
+        }
+        return board;
+    }
+}
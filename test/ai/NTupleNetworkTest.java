@@ -0,0 +1,86 @@
+package ai;
+
+import engine.BitBoard;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class NTupleNetworkTest {
+    private static final int BOARDS = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A 5-tuple and a 3-tuple make about a million weights, several write chunks and a partial last one.
+     */
+    @Test
+    public void saveAndLoadKeepEveryWeight() throws IOException {
+        NTupleNetwork network = new NTupleNetwork(new int[][]{{0, 1, 2, 3, 4}, {5, 6, 9}});
+        Random random = new Random(18);
+        for (int i = 0; i < 100_000; i++) {
+            network.update(randomBoard(random), random.nextFloat() * 100 - 50);
+        }
+        Path file = folder.getRoot().toPath().resolve("network.bin");
+        network.save(file);
+        network.save(file);
+
+        NTupleNetwork loaded = NTupleNetwork.load(file);
+        assertEquals(network.getWeightCount(), loaded.getWeightCount());
+        for (int i = 0; i < BOARDS; i++) {
+            long board = randomBoard(random);
+            assertEquals(Float.floatToIntBits(network.value(board)), Float.floatToIntBits(loaded.value(board)));
+        }
+    }
+
+    @Test
+    public void truncatedFileDoesNotLoad() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("network.bin");
+        NTupleNetwork.fourTuples().save(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 4);
+        }
+        try {
+            NTupleNetwork.load(file);
+            fail("loaded a truncated network");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void valueIsTheSameForEverySymmetry() {
+        NTupleNetwork network = NTupleNetwork.fourTuples();
+        Random random = new Random(8);
+        for (int i = 0; i < 10_000; i++) {
+            network.update(randomBoard(random), random.nextFloat());
+        }
+        for (int i = 0; i < BOARDS; i++) {
+            long board = randomBoard(random);
+            long rotated = board;
+            for (int turn = 0; turn < 4; turn++) {
+                assertEquals(network.value(board), network.value(rotated), 1e-3);
+                assertEquals(network.value(board), network.value(BitBoard.mirror(rotated)), 1e-3);
+                rotated = BitBoard.mirror(BitBoard.transpose(rotated));
+            }
+        }
+    }
+
+    static long randomBoard(Random random) {
+        long board = 0;
+        for (int i = 0; i < BitBoard.CELLS; i++) {
+            if (random.nextInt(4) != 0) {
+                board = BitBoard.set(board, i, 1 + random.nextInt(12));
+            }
+        }
+        return board;
+    }
+}
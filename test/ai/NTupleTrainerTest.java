@@ -0,0 +1,43 @@
+package ai;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NTupleTrainerTest {
+    private static final float LEARNING_RATE = 0.1f;
+
+    /**
+     * Symmetric images of a tuple may read the same weight, which then takes the step more than once, so a step
+     * covers at least the learning rate's share of the error but never passes the target.
+     */
+    @Test
+    public void oneStepMovesTheValueTowardTheTarget() {
+        NTupleNetwork network = NTupleNetwork.fourTuples();
+        NTupleTrainer trainer = new NTupleTrainer(network, LEARNING_RATE, 0, 0, 1);
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            long board = NTupleNetworkTest.randomBoard(random);
+            float target = random.nextFloat() * 2000 - 1000;
+            float before = network.value(board);
+
+            trainer.learn(board, target);
+            float step = (network.value(board) - before) / (target - before);
+            assertTrue("step " + step, step > LEARNING_RATE - 1e-3 && step < 1);
+        }
+    }
+
+    @Test
+    public void repeatedStepsReachTheTarget() {
+        NTupleNetwork network = NTupleNetwork.fourTuples();
+        NTupleTrainer trainer = new NTupleTrainer(network, LEARNING_RATE, 0, 0, 1);
+        long board = NTupleNetworkTest.randomBoard(new Random(1));
+        for (int i = 0; i < 200; i++) {
+            trainer.learn(board, 500);
+        }
+        assertEquals(500, network.value(board), 1e-1);
+    }
+}
@@ -0,0 +1,68 @@
+package batch;
+
+import ai.RandomPlayer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchRunnerTest {
+    private static final int GAMES = 40;
+    private static final int SLOW_GAMES = 8;
+
+    @Test
+    public void workerFailureIsRethrown() throws InterruptedException {
+        IllegalStateException failure = new IllegalStateException("no policy for this board");
+        BatchRunner runner = new BatchRunner(5, GAMES, 0, 2, seed -> {
+            if (seed == 7) {
+                throw failure;
+            }
+            return new RandomPlayer(new Random(seed));
+        });
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            runner.run(new PrintStream(bytes, true, StandardCharsets.UTF_8), BatchRunner.Format.JSON, 1000);
+            fail("the batch finished without game 7");
+        } catch (IllegalStateException e) {
+            assertEquals(failure, e);
+        }
+        assertEquals("", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Every move waits a little, so the batch outlives several report intervals.
+     */
+    @Test
+    public void progressLinesCarryTheDistributions() throws InterruptedException {
+        BatchRunner runner = new BatchRunner(4, SLOW_GAMES, 0, 2, seed -> {
+            RandomPlayer player = new RandomPlayer(new Random(seed));
+            return board -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return player.chooseMove(board);
+            };
+        });
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Statistics statistics = runner.run(new PrintStream(bytes, true, StandardCharsets.UTF_8),
+                BatchRunner.Format.JSON, 20);
+
+        assertEquals(SLOW_GAMES, statistics.getGames());
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines.length + " lines", lines.length > 2);
+        for (String line : lines) {
+            assertTrue(line, line.contains("\"scoreHistogram\":{"));
+            assertTrue(line, line.contains("\"maxTiles\":{"));
+            assertTrue(line, line.contains("\"movesHistogram\":{"));
+        }
+        assertTrue(lines[lines.length - 1].contains("\"games\":" + SLOW_GAMES + ","));
+    }
+}
@@ -0,0 +1,149 @@
+package engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BitBoardTest {
+    private static final int BOARDS = 10000;
+    private static final int GAMES = 50;
+
+    @Test
+    public void movesLikeAPlainSlide() {
+        Random random = new Random(1);
+        int[] cells = new int[BitBoard.CELLS];
+        int[] expected = new int[BitBoard.CELLS];
+        for (int i = 0; i < BOARDS; i++) {
+            long board = 0;
+            int empty = 0;
+            for (int index = 0; index < BitBoard.CELLS; index++) {
+                int exponent = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(random.nextBoolean() ? 3 : BitBoard.MAX_EXPONENT);
+                board = BitBoard.set(board, index, exponent);
+                cells[index] = exponent;
+                if (exponent == 0)
+                    empty++;
+            }
+            assertEquals(empty, BitBoard.emptyCells(board));
+
+            boolean movable = false;
+            for (Direction direction : Direction.values()) {
+                System.arraycopy(cells, 0, expected, 0, cells.length);
+                int score = slide(expected, direction);
+                long after = BitBoard.move(board, direction);
+                for (int index = 0; index < BitBoard.CELLS; index++) {
+                    assertEquals(direction + " cell " + index, expected[index], BitBoard.get(after, index));
+                }
+                if (after != board) {
+                    assertEquals(score, BitBoard.moveScore(board, direction));
+                    movable = true;
+                }
+            }
+            assertEquals(movable, BitBoard.canMove(board));
+        }
+    }
+
+    @Test
+    public void playsLikeBoard() {
+        Random policy = new Random(16);
+        Board trial = new Board(BitBoard.DIMENSION);
+        for (int game = 0; game < GAMES; game++) {
+            Random packedRandom = new Random(game);
+            Random boardRandom = new Random(game);
+            long packed = spawn(spawn(0, packedRandom), packedRandom);
+            Board board = new Board(BitBoard.DIMENSION);
+            board.addRandomTile(boardRandom);
+            board.addRandomTile(boardRandom);
+
+            while (BitBoard.canMove(packed)) {
+                assertSameCells(board, packed);
+                assertEquals(board.emptyCount(), BitBoard.emptyCells(packed));
+                for (int direction = 0; direction < 4; direction++) {
+                    trial.copyFrom(board);
+                    boolean moved = trial.move(Direction.of(direction));
+                    long after = BitBoard.move(packed, Direction.of(direction));
+                    assertEquals(moved, after != packed);
+                    assertSameCells(trial, after);
+                    if (moved) {
+                        assertEquals(trial.getLastMoveScore(), BitBoard.moveScore(packed, Direction.of(direction)));
+                    }
+                }
+
+                Direction direction = Direction.of(policy.nextInt(4));
+                long after = BitBoard.move(packed, direction);
+                if (board.move(direction)) {
+                    board.addRandomTile(boardRandom);
+                    packed = spawn(after, packedRandom);
+                }
+            }
+            assertSameCells(board, packed);
+            assertFalse(board.canMove());
+        }
+    }
+
+    @Test
+    public void canonicalIsTheSameForEverySymmetry() {
+        Random random = new Random(8);
+        for (int i = 0; i < 1000; i++) {
+            long board = random.nextLong();
+            long canonical = BitBoard.canonical(board);
+            long rotated = board;
+            for (int turn = 0; turn < 4; turn++) {
+                assertEquals(canonical, BitBoard.canonical(rotated));
+                assertEquals(canonical, BitBoard.canonical(BitBoard.mirror(rotated)));
+                rotated = BitBoard.mirror(BitBoard.transpose(rotated));
+            }
+        }
+    }
+
+    /**
+     * Slides {@code cells} one cell at a time, merging each tile at most once and never two
+     * {@link BitBoard#MAX_EXPONENT} tiles.
+     *
+     * @return the score of the merges
+     */
+    private static int slide(int[] cells, Direction direction) {
+        int score = 0;
+        for (int line = 0; line < BitBoard.DIMENSION; line++) {
+            int[] indices = new int[BitBoard.DIMENSION];
+            for (int i = 0; i < BitBoard.DIMENSION; i++) {
+                int along = direction == Direction.UP || direction == Direction.LEFT ? i : BitBoard.DIMENSION - 1 - i;
+                boolean vertical = direction == Direction.UP || direction == Direction.DOWN;
+                indices[i] = vertical ? along * BitBoard.DIMENSION + line : line * BitBoard.DIMENSION + along;
+            }
+            int target = 0;
+            boolean mergeable = false;
+            for (int i = 0; i < BitBoard.DIMENSION; i++) {
+                int value = cells[indices[i]];
+                if (value == 0)
+                    continue;
+                cells[indices[i]] = 0;
+                if (mergeable && cells[indices[target - 1]] == value && value < BitBoard.MAX_EXPONENT) {
+                    cells[indices[target - 1]] = value + 1;
+                    score += 1 << (value + 1);
+                    mergeable = false;
+                } else {
+                    cells[indices[target++]] = value;
+                    mergeable = true;
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Spawns a tile the way {@link Board#addRandomTile(Random)} does.
+     */
+    static long spawn(long board, Random random) {
+        int index = BitBoard.emptyCell(board, random.nextInt(BitBoard.emptyCells(board)));
+        return BitBoard.set(board, index, random.nextInt(10) == 0 ? 2 : 1);
+    }
+
+    private static void assertSameCells(Board board, long packed) {
+        for (int i = 0; i < BitBoard.CELLS; i++) {
+            assertEquals("cell " + i, board.get(i), BitBoard.get(packed, i));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BoardBatchTest {
+    private static final int LANES = 16;
+    private static final int STEPS = 2000;
+
+    /**
+     * Steps every lane next to a {@link Board} spawning from {@code new GameRandom(seed + lane)}, restarting
+     * finished lanes with a fresh seed, and compares the two after every step.
+     */
+    @Test
+    public void lanesPlayLikeBoards() {
+        for (int dimension : new int[]{3, 4, 5, 6}) {
+            BoardBatch batch = new BoardBatch(dimension, LANES);
+            Board[] boards = new Board[LANES];
+            GameRandom[] randoms = new GameRandom[LANES];
+            long seed = dimension * 1000L;
+            batch.reset(seed);
+            for (int lane = 0; lane < LANES; lane++) {
+                boards[lane] = new Board(dimension);
+                randoms[lane] = start(boards[lane], seed + lane);
+            }
+            long nextSeed = seed + LANES;
+
+            Random policy = new Random(dimension);
+            byte[] directions = new byte[LANES];
+            for (int step = 0; step < STEPS; step++) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    directions[lane] = (byte) (policy.nextInt(5) - 1);
+                }
+                batch.step(directions);
+                for (int lane = 0; lane < LANES; lane++) {
+                    Board board = boards[lane];
+                    boolean changed = directions[lane] != BoardBatch.SKIP && board.move(Direction.of(directions[lane]));
+                    if (changed) {
+                        board.addRandomTile(randoms[lane]);
+                    }
+                    String where = dimension + "x" + dimension + " lane " + lane + " step " + step;
+                    assertEquals(where, changed, batch.getChanged()[lane]);
+                    assertEquals(where, changed ? board.getLastMoveScore() : 0, batch.getGained()[lane]);
+                    assertEquals(where, board.getScore(), batch.getScores()[lane]);
+                    assertEquals(where, !board.canMove(), batch.getTerminal()[lane]);
+                    for (int i = 0; i < board.size(); i++) {
+                        assertEquals(where + " cell " + i, board.get(i), batch.get(lane, i));
+                    }
+                    if (batch.getTerminal()[lane]) {
+                        batch.reset(lane, nextSeed);
+                        randoms[lane] = start(board, nextSeed++);
+                    }
+                }
+            }
+        }
+    }
+
+    private static GameRandom start(Board board, long seed) {
+        GameRandom random = new GameRandom(seed);
+        board.clear();
+        board.addRandomTile(random);
+        board.addRandomTile(random);
+        return random;
+    }
+}
@@ -0,0 +1,126 @@
+package engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BoardTest {
+    private static final int MOVES = 400;
+    private static final int PARALLEL_MOVES = 150;
+
+    @Test
+    public void countsMatchARescanAfterMovesAndWrites() {
+        for (int dimension : new int[]{2, 3, 5, 9, 70}) {
+            Random random = new Random(dimension);
+            Board board = new Board(dimension);
+            board.addRandomTile(random);
+            board.addRandomTile(random);
+            for (int move = 0; move < MOVES; move++) {
+                if (!board.canMove() || random.nextInt(50) == 0) {
+                    board.clear();
+                    board.addRandomTile(random);
+                    board.addRandomTile(random);
+                } else if (random.nextInt(10) == 0) {
+                    board.set(random.nextInt(board.size()), random.nextInt(4));
+                } else if (board.move(Direction.of(random.nextInt(4)))) {
+                    board.addRandomTile(random);
+                }
+                assertMatchesRescan(board);
+            }
+        }
+    }
+
+    @Test
+    public void copyKeepsTheCounts() {
+        Random random = new Random(7);
+        Board board = new Board(6);
+        for (int i = 0; i < 20; i++) {
+            board.addRandomTile(random);
+        }
+        Board copy = new Board(6);
+        copy.copyFrom(board);
+        assertMatchesRescan(copy);
+        copy.move(Direction.LEFT);
+        assertMatchesRescan(copy);
+    }
+
+    /**
+     * Plays the same seeded moves and spawns on boards of 4096 cells and more, once on the fork-join path and once
+     * sequentially.
+     */
+    @Test
+    public void parallelMovesMatchSequentialMoves() {
+        for (int dimension : new int[]{64, 65, 100}) {
+            Board sequential = densePosition(dimension, Integer.MAX_VALUE);
+            Board parallel = densePosition(dimension, 0);
+            Random sequentialSpawns = new Random(dimension);
+            Random parallelSpawns = new Random(dimension);
+            Random policy = new Random(~dimension);
+            for (int move = 0; move < PARALLEL_MOVES; move++) {
+                Direction direction = Direction.of(policy.nextInt(4));
+                String where = dimension + "x" + dimension + " move " + move + " " + direction;
+                assertEquals(where, sequential.move(direction), parallel.move(direction));
+                assertSameBoard(where, sequential, parallel);
+                sequential.addRandomTile(sequentialSpawns);
+                parallel.addRandomTile(parallelSpawns);
+                assertSameBoard(where, sequential, parallel);
+            }
+        }
+    }
+
+    private static Board densePosition(int dimension, int parallelCells) {
+        Random random = new Random(dimension);
+        Board board = new Board(dimension);
+        board.setParallelCells(parallelCells);
+        board.zobristHash();
+        for (int i = 0; i < board.size(); i++) {
+            if (random.nextInt(5) != 0) {
+                board.set(i, 1 + random.nextInt(4));
+            }
+        }
+        return board;
+    }
+
+    private static void assertSameBoard(String where, Board expected, Board actual) {
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(where + " cell " + i, expected.get(i), actual.get(i));
+        }
+        assertEquals(where, expected.getScore(), actual.getScore());
+        assertEquals(where, expected.getLastMoveScore(), actual.getLastMoveScore());
+        assertEquals(where, expected.emptyCount(), actual.emptyCount());
+        assertEquals(where, expected.equalPairs(), actual.equalPairs());
+        for (int symmetry = 0; symmetry < 8; symmetry++) {
+            assertEquals(where + " symmetry " + symmetry, expected.hash(symmetry), actual.hash(symmetry));
+        }
+        for (int rank = 0; rank < expected.emptyCount(); rank++) {
+            assertEquals(where + " rank " + rank, expected.emptyCell(rank), actual.emptyCell(rank));
+        }
+    }
+
+    private static void assertMatchesRescan(Board board) {
+        int dimension = board.getDimension();
+        int empty = 0;
+        int pairs = 0;
+        for (int row = 0; row < dimension; row++) {
+            for (int column = 0; column < dimension; column++) {
+                int value = board.get(row, column);
+                if (value == 0) {
+                    assertEquals(row * dimension + column, board.emptyCell(empty));
+                    empty++;
+                    continue;
+                }
+                if (column + 1 < dimension && board.get(row, column + 1) == value) {
+                    pairs++;
+                }
+                if (row + 1 < dimension && board.get(row + 1, column) == value) {
+                    pairs++;
+                }
+            }
+        }
+        assertEquals(empty, board.emptyCount());
+        assertEquals(pairs, board.equalPairs());
+        assertEquals(empty > 0 || pairs > 0, board.canMove());
+    }
+}
@@ -0,0 +1,70 @@
+package engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HistoryTest {
+    @Test
+    public void undoAndRedoWalkTheStates() {
+        History history = new History(4, 8);
+        Board board = new Board(2);
+        history.push(board, 0, 10, 0, null);
+        for (int i = 1; i <= 3; i++) {
+            board.set(i, i);
+            history.push(board, i * 4, 10 + i, i, Direction.of(i));
+        }
+
+        assertFalse(history.canRedo());
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertEquals(4, history.getScore());
+        assertEquals(11, history.getRandomState());
+        assertEquals(1, history.getMoveCount());
+        assertEquals(Direction.DOWN, history.getMove());
+        history.restore(board);
+        assertEquals(1, board.get(1));
+        assertEquals(0, board.get(2));
+        assertEquals(0, board.get(3));
+
+        assertTrue(history.redo());
+        assertEquals(8, history.getScore());
+        assertEquals(2, history.getCell(2));
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertNull(history.getMove());
+        assertFalse(history.undo());
+    }
+
+    @Test
+    public void pushDropsTheRedoStates() {
+        History history = new History(16, 4);
+        history.push(0L, 0, 0, 0, null);
+        history.push(BitBoard.set(0L, 3, 1), 2, 0, 1, Direction.LEFT);
+        history.push(BitBoard.set(0L, 3, 2), 4, 0, 2, Direction.LEFT);
+        history.undo();
+        history.push(BitBoard.set(0L, 5, 1), 6, 0, 2, Direction.UP);
+
+        assertFalse(history.canRedo());
+        assertEquals(BitBoard.set(0L, 5, 1), history.restorePacked());
+        assertEquals(Direction.UP, history.getMove());
+        history.undo();
+        assertEquals(BitBoard.set(0L, 3, 1), history.restorePacked());
+    }
+
+    @Test
+    public void fullBufferForgetsTheOldestState() {
+        History history = new History(4, 3);
+        for (int i = 0; i < 5; i++) {
+            history.push(0L, i, 0, i, null);
+        }
+        assertEquals(4, history.getScore());
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertEquals(2, history.getScore());
+        assertFalse(history.undo());
+    }
+}
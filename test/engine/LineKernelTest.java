@@ -0,0 +1,90 @@
+package engine;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * The vector kernel against the scalar one through {@link VerifyingLineKernel}, which throws on any difference.
+ * Skipped unless the vector kernel loads, which needs {@code mvn -P vector}.
+ */
+public class LineKernelTest {
+    private static final int[] LENGTHS = {1, 2, 3, 7, 8, 9, 15, 16, 17, 23, 31, 32, 33, 64, 65, 100, 1000};
+    private static final int CELLS = 1 << 14;
+    private static final int OFFSET = 3;
+
+    private LineKernel kernel;
+
+    @Before
+    public void loadVectorKernel() {
+        LineKernel vector = ScalarLineKernel.loadVector();
+        assumeNotNull(vector);
+        kernel = new VerifyingLineKernel(vector, new ScalarLineKernel());
+    }
+
+    @Test
+    public void randomRows() {
+        Random random = new Random(64);
+        for (int length : LENGTHS) {
+            for (double fill : new double[]{0.2, 0.5, 0.9, 1}) {
+                byte[] cells = rows(length);
+                for (int i = OFFSET; i < cells.length; i++) {
+                    if (random.nextDouble() < fill) {
+                        cells[i] = (byte) (1 + random.nextInt(4));
+                    }
+                }
+                slideBothWays(cells, length);
+            }
+        }
+    }
+
+    @Test
+    public void saturatedRows() {
+        Random random = new Random(127);
+        for (int length : LENGTHS) {
+            for (byte top : new byte[]{BitBoard.MAX_EXPONENT, Byte.MAX_VALUE}) {
+                byte[] cells = rows(length);
+                Arrays.fill(cells, OFFSET, cells.length, top);
+                slideBothWays(cells, length);
+
+                for (int i = OFFSET; i < cells.length; i++) {
+                    int pick = random.nextInt(4);
+                    cells[i] = pick == 0 ? 0 : (byte) (top - pick + 1);
+                }
+                slideBothWays(cells, length);
+            }
+        }
+    }
+
+    @Test
+    public void rowsThatCannotMoveReportNoChange() {
+        for (int length : LENGTHS) {
+            byte[] cells = rows(length);
+            assertEquals(-1, kernel.slideRows(cells, OFFSET, length, rowCount(length), false));
+            for (int i = OFFSET; i < cells.length; i++) {
+                cells[i] = (byte) (1 + (i - OFFSET) % length % 2);
+            }
+            assertEquals(-1, kernel.slideRows(cells, OFFSET, length, rowCount(length), false));
+            assertEquals(-1, kernel.slideRows(cells, OFFSET, length, rowCount(length), true));
+        }
+    }
+
+    private void slideBothWays(byte[] cells, int length) {
+        byte[] copy = cells.clone();
+        kernel.slideRows(cells, OFFSET, length, rowCount(length), false);
+        kernel.slideRows(copy, OFFSET, length, rowCount(length), true);
+    }
+
+    private static byte[] rows(int length) {
+        return new byte[OFFSET + rowCount(length) * length];
+    }
+
+    private static int rowCount(int length) {
+        return Math.max(1, CELLS / length);
+    }
+}
@@ -0,0 +1,94 @@
+package engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MoveDeltaTest {
+    private static final int GAMES = 20;
+    private static final int MOVES = 1000;
+
+    @Test
+    public void boardDeltaTurnsTheOldBoardIntoTheNewOne() {
+        for (int dimension : new int[]{3, 4, 5, 8}) {
+            Random random = new Random(dimension);
+            for (int game = 0; game < GAMES; game++) {
+                Board board = new Board(dimension);
+                MoveDelta delta = new MoveDelta(dimension);
+                byte[] before = new byte[board.size()];
+                board.addRandomTile(random);
+                board.addRandomTile(random);
+                for (int move = 0; move < MOVES && board.canMove(); move++) {
+                    for (int i = 0; i < before.length; i++) {
+                        before[i] = (byte) board.get(i);
+                    }
+                    int score = board.getScore();
+                    delta.clear();
+                    boolean moved = board.move(Direction.of(random.nextInt(4)), delta);
+                    assertEquals(moved, delta.isChanged());
+                    if (!moved) {
+                        continue;
+                    }
+                    int spawn = board.addRandomTile(random);
+                    delta.setSpawn(spawn, board.get(spawn));
+
+                    apply(delta, before);
+                    for (int i = 0; i < before.length; i++) {
+                        assertEquals("cell " + i, board.get(i), before[i]);
+                    }
+                    assertEquals(board.getScore() - score, delta.getScore());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bitBoardDeltaTurnsTheOldBoardIntoTheNewOne() {
+        GameRandom random = new GameRandom(4);
+        MoveDelta delta = new MoveDelta(BitBoard.DIMENSION);
+        byte[] before = new byte[BitBoard.CELLS];
+        for (int game = 0; game < GAMES; game++) {
+            long board = BitBoardTest.spawn(BitBoardTest.spawn(0, random), random);
+            while (BitBoard.canMove(board)) {
+                Direction direction = Direction.of(random.nextInt(4));
+                long after = BitBoard.move(board, direction);
+                if (after == board) {
+                    continue;
+                }
+                for (int i = 0; i < before.length; i++) {
+                    before[i] = (byte) BitBoard.get(board, i);
+                }
+                delta.clear();
+                BitBoard.describeMove(board, direction, delta);
+                long spawned = BitBoardTest.spawn(after, random);
+                int spawn = Long.numberOfTrailingZeros(spawned ^ after) >>> 2;
+                delta.setSpawn(spawn, BitBoard.get(spawned, spawn));
+
+                apply(delta, before);
+                for (int i = 0; i < before.length; i++) {
+                    assertEquals("cell " + i, BitBoard.get(spawned, i), before[i]);
+                }
+                assertEquals(BitBoard.moveScore(board, direction), delta.getScore());
+                board = spawned;
+            }
+        }
+    }
+
+    /**
+     * Applies the slides in order, then the merges, then the spawn, as a view does.
+     */
+    private static void apply(MoveDelta delta, byte[] cells) {
+        for (int i = 0; i < delta.getSlideCount(); i++) {
+            cells[delta.getSlideFrom(i)] = 0;
+            cells[delta.getSlideTo(i)] = (byte) delta.getSlideExponent(i);
+        }
+        for (int i = 0; i < delta.getMergeCount(); i++) {
+            cells[delta.getMergeCell(i)] = (byte) delta.getMergeExponent(i);
+        }
+        if (delta.getSpawnCell() >= 0) {
+            cells[delta.getSpawnCell()] = (byte) delta.getSpawnExponent();
+        }
+    }
+}
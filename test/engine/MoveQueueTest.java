@@ -0,0 +1,105 @@
+package engine;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MoveQueueTest {
+    private static final int CODES = 2_000_000;
+
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1, new MoveQueue(1).capacity());
+        assertEquals(8, new MoveQueue(5).capacity());
+        assertEquals(64, new MoveQueue(64).capacity());
+    }
+
+    @Test
+    public void fullQueueDropsTheOffer() {
+        MoveQueue queue = new MoveQueue(4);
+        for (int code = 0; code < 4; code++) {
+            assertTrue(queue.offer(code));
+        }
+        assertFalse(queue.offer(9));
+        assertEquals(4, queue.size());
+
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(10));
+        assertFalse(queue.offer(11));
+        for (int code : new int[]{1, 2, 3, 10}) {
+            assertEquals(code, queue.poll());
+        }
+        assertEquals(-1, queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * Keeps the queue between half full and full for many laps, so every slot is reused at every fill level.
+     */
+    @Test
+    public void codesComeOutInOrderAcrossWraparound() {
+        MoveQueue queue = new MoveQueue(8);
+        int offered = 0;
+        int polled = 0;
+        for (int lap = 0; lap < 1000; lap++) {
+            while (queue.offer(offered % 128)) {
+                offered++;
+            }
+            assertEquals(8, queue.size());
+            for (int i = 0; i < 1 + lap % 8; i++) {
+                assertEquals(polled % 128, queue.poll());
+                polled++;
+            }
+        }
+        while (polled < offered) {
+            assertEquals(polled % 128, queue.poll());
+            polled++;
+        }
+        assertEquals(-1, queue.poll());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void codesAboveAByteAreRejected() {
+        new MoveQueue(4).offer(128);
+    }
+
+    /**
+     * One thread offers a running sequence, retrying when the queue is full; the other must see it complete and in
+     * order.
+     */
+    @Test
+    public void producerAndConsumerThreadsKeepTheOrder() throws InterruptedException {
+        MoveQueue queue = new MoveQueue(16);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            for (int expected = 0; expected < CODES; ) {
+                int code = queue.poll();
+                if (code < 0) {
+                    Thread.yield();
+                    continue;
+                }
+                if (code != expected % 128) {
+                    failure.set("code " + expected + ": got " + code);
+                    return;
+                }
+                expected++;
+            }
+        });
+        consumer.start();
+        for (int code = 0; code < CODES && consumer.isAlive(); ) {
+            if (queue.offer(code % 128))
+                code++;
+            else
+                Thread.yield();
+        }
+        consumer.join(60_000);
+        assertFalse(consumer.isAlive());
+        assertNull(failure.get());
+        assertEquals(0, queue.size());
+    }
+}
@@ -0,0 +1,109 @@
+package engine;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The scalar kernel through {@link VerifyingLineKernel} against a reference that packs each row into a list first,
+ * so the verifying path runs without the vector profile.
+ */
+public class ScalarLineKernelTest {
+    private static final int[] LENGTHS = {1, 2, 3, 4, 5, 8, 16, 17, 100};
+    private static final int CELLS = 1 << 12;
+
+    private final LineKernel kernel = new VerifyingLineKernel(new ScalarLineKernel(), new ListLineKernel());
+
+    @Test
+    public void randomRows() {
+        Random random = new Random(24);
+        for (int length : LENGTHS) {
+            for (double fill : new double[]{0.2, 0.5, 0.9, 1}) {
+                for (int bound : new int[]{2, 4, BitBoard.MAX_EXPONENT}) {
+                    byte[] cells = new byte[CELLS / length * length];
+                    for (int i = 0; i < cells.length; i++) {
+                        if (random.nextDouble() < fill) {
+                            cells[i] = (byte) (1 + random.nextInt(bound));
+                        }
+                    }
+                    byte[] copy = cells.clone();
+                    kernel.slideRows(cells, 0, length, cells.length / length, false);
+                    kernel.slideRows(copy, 0, length, copy.length / length, true);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mergesEachTileOnce() {
+        byte[] cells = {1, 1, 1, 1, 2, 2, 0, 3};
+        assertEquals(4 + 4 + 8, kernel.slideRows(cells, 0, cells.length, 1, false));
+        assertTrue(Arrays.equals(new byte[]{2, 2, 3, 3, 0, 0, 0, 0}, cells));
+
+        cells = new byte[]{0, 2, 1, 1, 1};
+        assertEquals(4, kernel.slideRows(cells, 0, cells.length, 1, true));
+        assertTrue(Arrays.equals(new byte[]{0, 0, 2, 1, 2}, cells));
+        assertEquals(-1, kernel.slideRows(cells, 0, cells.length, 1, true));
+    }
+
+    @Test
+    public void differenceIsReported() {
+        LineKernel offByOne = (cells, offset, length, rows, reverse) -> {
+            int score = new ScalarLineKernel().slideRows(cells, offset, length, rows, reverse);
+            cells[offset]++;
+            return score;
+        };
+        try {
+            new VerifyingLineKernel(offByOne, new ListLineKernel()).slideRows(new byte[]{1, 1, 0}, 0, 3, 1, false);
+            fail("a wrong cell went through");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    /**
+     * Gathers the tiles of a row in order, merges equal neighbours left to right and writes them back.
+     */
+    private static final class ListLineKernel implements LineKernel {
+        @Override
+        public int slideRows(byte[] cells, int offset, int length, int rows, boolean reverse) {
+            int gained = 0;
+            boolean changed = false;
+            byte[] tiles = new byte[length];
+            for (int row = 0; row < rows; row++) {
+                int count = 0;
+                for (int k = 0; k < length; k++) {
+                    byte value = cells[index(offset, length, row, k, reverse)];
+                    if (value != 0) {
+                        tiles[count++] = value;
+                    }
+                }
+                int written = 0;
+                for (int t = 0; t < count; t++) {
+                    byte value = tiles[t];
+                    if (t + 1 < count && tiles[t + 1] == value) {
+                        value++;
+                        gained += 1 << value;
+                        t++;
+                    }
+                    tiles[written++] = value;
+                }
+                for (int k = 0; k < length; k++) {
+                    int index = index(offset, length, row, k, reverse);
+                    byte value = k < written ? tiles[k] : 0;
+                    changed |= cells[index] != value;
+                    cells[index] = value;
+                }
+            }
+            return changed ? gained : -1;
+        }
+
+        private static int index(int offset, int length, int row, int k, boolean reverse) {
+            return offset + row * length + (reverse ? length - 1 - k : k);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    public void smallValuesHaveABucketEach() {
+        for (int value = 0; value < 32; value++) {
+            assertEquals(value, LatencyHistogram.bucket(value));
+            assertEquals(value, LatencyHistogram.lowerBound(value));
+        }
+        assertEquals(0, LatencyHistogram.bucket(-5));
+        assertEquals(32, LatencyHistogram.bucket(33));
+        assertEquals(33, LatencyHistogram.bucket(34));
+        assertEquals(48, LatencyHistogram.bucket(64));
+        assertEquals(48, LatencyHistogram.bucket(67));
+        assertEquals(49, LatencyHistogram.bucket(68));
+    }
+
+    /**
+     * Each bucket starts where the previous one ends and is at most 1/16 of its lower bound wide, up to the largest
+     * long.
+     */
+    @Test
+    public void bucketsTileEveryValue() {
+        int last = LatencyHistogram.bucket(Long.MAX_VALUE);
+        assertTrue(last < new LatencyHistogram("last").snapshot().length);
+        for (int bucket = 1; bucket <= last; bucket++) {
+            long lower = LatencyHistogram.lowerBound(bucket);
+            assertEquals(bucket, LatencyHistogram.bucket(lower));
+            assertEquals(bucket - 1, LatencyHistogram.bucket(lower - 1));
+            if (bucket < last) {
+                long width = LatencyHistogram.lowerBound(bucket + 1) - lower;
+                assertTrue(bucket + ": " + width, width >= 1 && width <= Math.max(1, lower / 16));
+            }
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinOneSixteenth() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+        long[] counts = histogram.snapshot();
+        assertEquals(10_000, LatencyHistogram.count(counts));
+        assertEquals(10_000_000, histogram.getMax());
+        for (double percentile : new double[]{1, 25, 50, 90, 99, 100}) {
+            long exact = (long) Math.ceil(percentile * 100) * 1000;
+            long estimate = LatencyHistogram.percentile(counts, percentile);
+            assertTrue(percentile + ": " + estimate, estimate <= exact && estimate > exact - exact / 16);
+        }
+        assertEquals(0, LatencyHistogram.percentile(new long[counts.length], 50));
+    }
+
+    @Test
+    public void differenceCountsOnlyTheWindow() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int i = 0; i < 100; i++) {
+            histogram.record(5);
+        }
+        long[] before = histogram.snapshot();
+        for (int i = 0; i < 10; i++) {
+            histogram.record(500);
+        }
+        long[] window = LatencyHistogram.difference(histogram.snapshot(), before);
+        assertEquals(10, LatencyHistogram.count(window));
+        assertEquals(LatencyHistogram.lowerBound(LatencyHistogram.bucket(500)), LatencyHistogram.percentile(window, 1));
+    }
+}
@@ -0,0 +1,104 @@
+package replay;
+
+import engine.Board;
+import engine.Direction;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReplayTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void playRebuildsTheRecordedGame() {
+        for (int dimension : new int[]{3, 4, 6}) {
+            Board board = new Board(dimension);
+            Replay replay = record(board, dimension * 31L, 500);
+            assertSameBoard(board, replay.play());
+        }
+    }
+
+    @Test
+    public void writeAndReadKeepTheGame() throws IOException {
+        Board board = new Board(5);
+        Replay replay = record(board, 99, 301);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        replay.write(new DataOutputStream(bytes));
+        Replay read = Replay.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(5, read.getDimension());
+        assertEquals(99, read.getSeed());
+        assertEquals(replay.getMoveCount(), read.getMoveCount());
+        assertSameBoard(board, read.play());
+    }
+
+    @Test
+    public void truncateKeepsAPrefixOfTheGame() {
+        Board board = new Board(4);
+        Replay replay = record(board, 5, 10);
+        Board prefix = new Board(4);
+        Replay expected = record(prefix, 5, 6);
+
+        replay.truncate(expected.getMoveCount());
+        assertEquals(expected.getMoveCount(), replay.getMoveCount());
+        assertSameBoard(prefix, replay.play());
+    }
+
+    @Test
+    public void writerArchivesEveryReplay() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("replays.bin");
+        Board[] boards = new Board[3];
+        try (ReplayWriter writer = new ReplayWriter(file)) {
+            for (int i = 0; i < boards.length; i++) {
+                boards[i] = new Board(4);
+                writer.submit(record(boards[i], i, 100 + i));
+            }
+        }
+        try (ReplayReader reader = new ReplayReader(file)) {
+            for (Board board : boards) {
+                assertSameBoard(board, reader.next().play());
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    /**
+     * Plays random moves on {@code board}, spawning from {@code new Random(seed)} the way {@link Replay#play()}
+     * does, until the game ends or {@code moves} moves have changed it.
+     */
+    private static Replay record(Board board, long seed, int moves) {
+        Replay replay = new Replay(board.getDimension(), seed);
+        Random random = new Random(seed);
+        Random policy = new Random(~seed);
+        board.addRandomTile(random);
+        board.addRandomTile(random);
+        while (board.canMove() && replay.getMoveCount() < moves) {
+            Direction direction = Direction.of(policy.nextInt(4));
+            if (board.move(direction)) {
+                board.addRandomTile(random);
+                replay.add(direction);
+            }
+        }
+        return replay;
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        assertEquals(expected.getScore(), actual.getScore());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("cell " + i, expected.get(i), actual.get(i));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package save;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import replay.Replay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SaveStoreTest {
+    private static final int ROUNDS = 200;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A fresh store has not started its thread yet, so the first write is still queued behind the delete and the
+     * second save.
+     */
+    @Test
+    public void saveAfterDeleteSurvivesARestart() throws IOException {
+        for (int round = 0; round < ROUNDS; round++) {
+            Path file = folder.getRoot().toPath().resolve("save" + round + ".bin");
+            try (SaveStore store = new SaveStore(file)) {
+                store.saveAsync(snapshot(1));
+                store.deleteAsync();
+                store.saveAsync(snapshot(2));
+            }
+            try (SaveStore restarted = new SaveStore(file)) {
+                assertTrue("round " + round, restarted.exists());
+                assertEquals("round " + round, 2, restarted.load().getScore());
+            }
+        }
+    }
+
+    @Test
+    public void deleteAfterSaveSurvivesARestart() throws IOException {
+        for (int round = 0; round < ROUNDS; round++) {
+            Path file = folder.getRoot().toPath().resolve("save" + round + ".bin");
+            try (SaveStore store = new SaveStore(file)) {
+                store.saveAsync(snapshot(1));
+                store.deleteAsync();
+                store.saveAsync(snapshot(2));
+                store.deleteAsync();
+                assertFalse(store.exists());
+            }
+            try (SaveStore restarted = new SaveStore(file)) {
+                assertFalse("round " + round, restarted.exists());
+                assertNull("round " + round, restarted.load());
+            }
+        }
+    }
+
+    @Test
+    public void loadSeesTheLatestSaveBeforeItIsWritten() throws IOException {
+        try (SaveStore store = new SaveStore(folder.getRoot().toPath().resolve("save.bin"))) {
+            for (int score = 1; score <= 10; score++) {
+                store.saveAsync(snapshot(score));
+                assertEquals(score, store.load().getScore());
+            }
+        }
+    }
+
+    private static Snapshot snapshot(int score) {
+        return new Snapshot(2, new byte[]{1, 0, 0, 2}, score, score, new Replay(2, score));
+    }
+}
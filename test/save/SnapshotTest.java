@@ -0,0 +1,59 @@
+package save;
+
+import engine.Direction;
+import org.junit.Test;
+import replay.Replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class SnapshotTest {
+    @Test
+    public void smallTilesRoundTripAsNibbles() throws IOException {
+        byte[] cells = {0, 1, 15, 3, 0, 11, 2, 2, 9};
+        Snapshot read = roundTrip(new Snapshot(3, cells, 1234, 0xABCDEF012345L, replay(3)));
+        assertRead(cells, 1234, 0xABCDEF012345L, read);
+    }
+
+    @Test
+    public void largeTilesRoundTripAsBytes() throws IOException {
+        byte[] cells = new byte[16];
+        cells[0] = 16;
+        cells[7] = 17;
+        cells[15] = 1;
+        Snapshot read = roundTrip(new Snapshot(4, cells, Integer.MAX_VALUE, 1, replay(4)));
+        assertRead(cells, Integer.MAX_VALUE, 1, read);
+    }
+
+    private static Replay replay(int dimension) {
+        Replay replay = new Replay(dimension, 42);
+        for (int i = 0; i < 7; i++) {
+            replay.add(Direction.of(i & 3));
+        }
+        return replay;
+    }
+
+    private static Snapshot roundTrip(Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write(new DataOutputStream(bytes));
+        return Snapshot.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static void assertRead(byte[] cells, int score, long randomState, Snapshot read) {
+        for (int i = 0; i < cells.length; i++) {
+            assertEquals("cell " + i, cells[i], read.getExponent(i));
+        }
+        assertEquals(score, read.getScore());
+        assertEquals(randomState, read.getRandomState());
+        assertEquals(42, read.getReplay().getSeed());
+        assertEquals(7, read.getReplay().getMoveCount());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(Direction.of(i & 3), read.getReplay().getMove(i));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package scores;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScoreLogTest {
+    /**
+     * More than the 4096 records the file is first mapped for, so appending has to grow it.
+     */
+    private static final int GAMES = 10_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reopenedLogHasEveryGame() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("scores.bin");
+        int[] scores = new int[GAMES];
+        Random random = new Random(19);
+        try (ScoreLog log = new ScoreLog(file)) {
+            for (int i = 0; i < GAMES; i++) {
+                int dimension = 4 + i % 2;
+                scores[i] = random.nextInt(100_000);
+                log.append(new ScoreRecord(1000 + i, dimension, scores[i], 10, i, 5));
+            }
+            check(log, scores);
+        }
+        try (ScoreLog log = new ScoreLog(file)) {
+            check(log, scores);
+            log.append(new ScoreRecord(1, 6, 2048, 11, 300, 40));
+            assertEquals(GAMES + 1, log.getCount());
+        }
+        try (ScoreLog log = new ScoreLog(file)) {
+            assertEquals(GAMES + 1, log.getCount());
+            assertArrayEquals(new int[]{4, 5, 6}, log.getDimensions());
+            ScoreRecord only = log.getTop(6, 10).get(0);
+            assertEquals(2048, only.getScore());
+            assertEquals(11, only.getMaxExponent());
+            assertEquals(300, only.getMoves());
+            assertEquals(40, only.getDurationMillis());
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinOneSixteenth() throws IOException {
+        try (ScoreLog log = new ScoreLog(folder.getRoot().toPath().resolve("scores.bin"))) {
+            for (int score = 1; score <= 1000; score++) {
+                log.append(new ScoreRecord(score, 4, score, 1, 1, 1));
+            }
+            assertEquals(1, log.getPercentile(4, 0));
+            for (double percentile : new double[]{10, 50, 90, 99, 100}) {
+                int exact = (int) Math.ceil(percentile * 10);
+                int estimate = log.getPercentile(4, percentile);
+                assertTrue(percentile + ": " + estimate, estimate <= exact && estimate > exact - exact / 16.0);
+            }
+            assertEquals(0, log.getPercentile(5, 50));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFileIsRejected() throws IOException {
+        Path file = folder.newFile("other.bin").toPath();
+        Files.write(file, new byte[64]);
+        new ScoreLog(file).close();
+    }
+
+    private static void check(ScoreLog log, int[] scores) {
+        assertEquals(GAMES, log.getCount());
+        assertArrayEquals(new int[]{4, 5}, log.getDimensions());
+        for (int dimension = 4; dimension <= 5; dimension++) {
+            int[] expected = new int[GAMES / 2];
+            for (int i = dimension - 4, k = 0; i < GAMES; i += 2) {
+                expected[k++] = scores[i];
+            }
+            Arrays.sort(expected);
+            assertEquals(GAMES / 2, log.getCount(dimension));
+
+            List<ScoreRecord> top = log.getTop(dimension, 3);
+            assertEquals(3, top.size());
+            for (int k = 0; k < top.size(); k++) {
+                assertEquals(expected[expected.length - 1 - k], top.get(k).getScore());
+            }
+            int median = expected[expected.length / 2 - 1];
+            int estimate = log.getPercentile(dimension, 50);
+            assertTrue(median + " vs " + estimate, estimate <= median && estimate > median - median / 16.0);
+        }
+    }
+}
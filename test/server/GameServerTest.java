@@ -0,0 +1,131 @@
+package server;
+
+import engine.Board;
+import engine.Direction;
+import engine.GameRandom;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GameServerTest {
+    private GameServer server;
+    private Thread thread;
+    private Socket socket;
+    private BufferedReader in;
+    private OutputStream out;
+
+    @Before
+    public void start() throws IOException {
+        server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        thread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        socket = new Socket(server.getAddress().getAddress(), server.getAddress().getPort());
+        socket.setSoTimeout(10_000);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        out = socket.getOutputStream();
+    }
+
+    @After
+    public void stop() throws IOException, InterruptedException {
+        socket.close();
+        server.close();
+        thread.join();
+    }
+
+    /**
+     * 4x4 sessions keep a packed board, other sizes a {@link Board}; both must play like a window game.
+     */
+    @Test
+    public void playsAGameLikeABoard() throws IOException {
+        int id = 0;
+        for (int dimension : new int[]{4, 5}) {
+            Board board = new Board(dimension);
+            GameRandom random = new GameRandom(dimension);
+            board.addRandomTile(random);
+            board.addRandomTile(random);
+
+            id++;
+            assertEquals("OK " + id, request("NEW " + dimension + " " + dimension));
+            assertEquals(state(board, 0), request("STATE " + id));
+            int moves = 0;
+            for (Direction direction : Direction.values()) {
+                boolean moved = board.move(direction);
+                if (moved) {
+                    board.addRandomTile(random);
+                    moves++;
+                }
+                String response = "OK " + (moved ? 1 : 0) + " " + board.getScore() + " " + (board.canMove() ? 0 : 1);
+                assertEquals(response, request("MOVE " + id + " " + direction));
+                assertEquals(state(board, moves), request("STATE " + id));
+            }
+            assertEquals("OK", request("CLOSE " + id));
+            assertEquals("ERR no such game", request("STATE " + id));
+        }
+    }
+
+    @Test
+    public void waitsForTheRestOfASplitLine() throws IOException, InterruptedException {
+        assertEquals("OK 1", request("NEW 4 3"));
+        send("MOV");
+        Thread.sleep(100);
+        send("E 1 LE");
+        Thread.sleep(100);
+        assertEquals(0, socket.getInputStream().available());
+        send("FT\nSTATE 1\n");
+        assertEquals("OK", in.readLine().substring(0, 2));
+        assertEquals("OK 4", in.readLine().substring(0, 4));
+    }
+
+    @Test
+    public void rejectsBoardsAboveTheLimit() throws IOException {
+        assertEquals("ERR dimension out of range", request("NEW " + (GameServer.MAX_DIMENSION + 1)));
+        assertEquals("ERR dimension out of range", request("NEW 1"));
+        assertEquals("OK 1", request("NEW " + GameServer.MAX_DIMENSION));
+    }
+
+    @Test
+    public void quitClosesTheConnection() throws IOException {
+        assertEquals("OK 1", request("NEW 4"));
+        send("QUIT\n");
+        assertNull(in.readLine());
+    }
+
+    private String request(String line) throws IOException {
+        send(line + "\n");
+        return in.readLine();
+    }
+
+    private void send(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static String state(Board board, int moves) {
+        StringBuilder line = new StringBuilder("OK ").append(board.getDimension())
+                .append(' ').append(board.getScore())
+                .append(' ').append(moves)
+                .append(' ').append(board.canMove() ? 0 : 1);
+        for (int i = 0; i < board.size(); i++) {
+            line.append(' ').append(board.get(i));
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package engine;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Line kernel on the incubating Vector API, eight byte lanes at a time. Each row is compacted by packing the
+ * non-zero lanes of every chunk with a shuffle looked up by their mask; then equal neighbours are found by
+ * comparing the row with itself shifted by one, the merging lanes of each chunk are picked from that mask with
+ * bit arithmetic (the first, third, ... of every run of equal neighbours, carried across chunks), incremented and
+ * packed again. Rows that slide toward their end are reversed before and after; rows shorter than two chunks go
+ * to the scalar kernel, which is faster on them. Built separately from the rest of the engine because it needs
+ * {@code --add-modules jdk.incubator.vector} to compile and run.
+ */
+final class VectorLineKernel implements LineKernel {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_64;
+    private static final int LANES = 8;
+    private static final int LANE_MASK = 0xFF;
+    private static final int EVEN_LANES = 0x55;
+    private static final int ODD_LANES = 0xAA;
+    private static final byte[] PACK = new byte[(LANE_MASK + 1) * LANES];
+    private static final VectorShuffle<Byte> REVERSE = VectorShuffle.fromValues(SPECIES, 7, 6, 5, 4, 3, 2, 1, 0);
+    private final LineKernel scalar = new ScalarLineKernel();
+
+    static {
+        for (int mask = 0; mask <= LANE_MASK; mask++) {
+            int packed = 0;
+            for (int lane = 0; lane < LANES; lane++) {
+                if ((mask >>> lane & 1) != 0) {
+                    PACK[mask * LANES + packed++] = (byte) lane;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int slideRows(byte[] cells, int offset, int length, int rows, boolean reverse) {
+        if (length < 2 * LANES) {
+            return scalar.slideRows(cells, offset, length, rows, reverse);
+        }
+        int gained = 0;
+        boolean changed = false;
+        for (int row = 0; row < rows; row++) {
+            int first = offset + row * length;
+            if (reverse)
+                reverse(cells, first, first + length);
+            int rowScore = slide(cells, first, first + length);
+            if (reverse)
+                reverse(cells, first, first + length);
+            if (rowScore >= 0) {
+                gained += rowScore;
+                changed = true;
+            }
+        }
+        return changed ? gained : -1;
+    }
+
+    /**
+     * Slides {@code [from, to)} toward {@code from}.
+     *
+     * @return the score gained, -1 if nothing changed
+     */
+    private static int slide(byte[] cells, int from, int to) {
+        boolean changed = false;
+        boolean seenEmpty = false;
+        int out = from;
+        int i = from;
+        for (; i + LANES <= to; i += LANES) {
+            ByteVector chunk = ByteVector.fromArray(SPECIES, cells, i);
+            int tiles = (int) chunk.compare(VectorOperators.NE, (byte) 0).toLong();
+            if (tiles == 0) {
+                seenEmpty = true;
+                continue;
+            }
+            if (seenEmpty || (tiles & (tiles + 1)) != 0)
+                changed = true;
+            if (tiles != LANE_MASK)
+                seenEmpty = true;
+            pack(chunk, tiles).intoArray(cells, out);
+            out += Integer.bitCount(tiles);
+        }
+        for (; i < to; i++) {
+            byte value = cells[i];
+            if (value == 0) {
+                seenEmpty = true;
+            } else {
+                if (seenEmpty)
+                    changed = true;
+                cells[out++] = value;
+            }
+        }
+
+        int end = out;
+        int gained = 0;
+        int carry = 0;
+        out = from;
+        i = from;
+        for (; i + LANES < end; i += LANES) {
+            ByteVector chunk = ByteVector.fromArray(SPECIES, cells, i);
+            int equal = (int) chunk.compare(VectorOperators.EQ, ByteVector.fromArray(SPECIES, cells, i + 1)).toLong();
+            int kept = LANE_MASK;
+            if ((equal | carry) != 0) {
+                int pairs = carry != 0 ? equal & ~1 : equal;
+                int evenRuns = pairs & ~(pairs + (pairs & ~(pairs << 1) & EVEN_LANES));
+                int merged = ((evenRuns & EVEN_LANES) | (pairs & ~evenRuns & ODD_LANES)) & LANE_MASK;
+                kept = ~((merged << 1) | carry) & LANE_MASK;
+                carry = merged >>> (LANES - 1);
+                if (merged != 0) {
+                    changed = true;
+                    for (int lanes = merged; lanes != 0; lanes &= lanes - 1) {
+                        gained += 1 << (cells[i + Integer.numberOfTrailingZeros(lanes)] + 1);
+                    }
+                    chunk = chunk.add((byte) 1, VectorMask.fromLong(SPECIES, merged));
+                }
+            }
+            pack(chunk, kept).intoArray(cells, out);
+            out += Integer.bitCount(kept);
+        }
+        boolean absorbed = carry != 0;
+        for (; i < end; i++) {
+            if (absorbed) {
+                absorbed = false;
+                continue;
+            }
+            byte value = cells[i];
+            if (i + 1 < end && cells[i + 1] == value) {
+                cells[out++] = (byte) (value + 1);
+                gained += 1 << (value + 1);
+                changed = true;
+                absorbed = true;
+            } else {
+                cells[out++] = value;
+            }
+        }
+
+        for (; out < to; out++) {
+            cells[out] = 0;
+        }
+        return changed ? gained : -1;
+    }
+
+    /**
+     * @return the lanes of {@code chunk} selected by {@code lanes}, packed toward lane 0
+     */
+    private static ByteVector pack(ByteVector chunk, int lanes) {
+        return ByteVector.fromArray(SPECIES, PACK, lanes * LANES).selectFrom(chunk);
+    }
+
+    private static void reverse(byte[] cells, int from, int to) {
+        int left = from;
+        int right = to;
+        while (right - left >= 2 * LANES) {
+            ByteVector head = ByteVector.fromArray(SPECIES, cells, left).rearrange(REVERSE);
+            ByteVector tail = ByteVector.fromArray(SPECIES, cells, right - LANES).rearrange(REVERSE);
+            tail.intoArray(cells, left);
+            head.intoArray(cells, right - LANES);
+            left += LANES;
+            right -= LANES;
+        }
+        for (right--; left < right; left++, right--) {
+            byte value = cells[left];
+            cells[left] = cells[right];
+            cells[right] = value;
+        }
+    }
+}